@@ -0,0 +1,24 @@
+/**
+ * Runs the JMH benchmarks with the GC profiler always on, so allocation regressions show up next to the times.
+ * Takes the usual JMH command line options, e.g. a benchmark name regex or -f/-wi/-i.
+ *
+ * Usage:
+ *      mvn -B package
+ *      java -jar benchmarks/target/benchmarks.jar [JMH options]
+ */
+package game;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+public class Benchmarks {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
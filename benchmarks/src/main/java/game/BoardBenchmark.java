@@ -0,0 +1,91 @@
+/**
+ * Board generation, shortest-path and action throughput.
+ * doAction() is fed a pre-made stream of random directions, acting on the tile next to the player like a turn of
+ * the game (Game.getTarget()), and the board is made again every iteration so it does not wear down to all EMPTY tiles.
+ * snapshotAndAction() is the same on a PersistentGrid, with an undo snapshot taken before every action (practice mode).
+ * Each has its own player, put back in the middle every iteration.
+ */
+package game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BoardBenchmark {
+    private static final int ACTIONS = 1 << 16;
+
+    @Param({"9", "100", "1000"})
+    public int size; // Columns and rows.
+
+    private SplittableRandom rng;
+    private int[] start, bomb;
+    private int[] player, persistentPlayer; // Moved by doAction() and snapshotAndAction().
+    private int[] directions;
+    private TileGrid board;
+    private PersistentGrid persistent;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        rng = new SplittableRandom(42);
+        start = new int[]{size/2, size/2};
+        bomb = Game.placeBomb(size, size, start, rng);
+        directions = new int[ACTIONS];
+        for (int i = 0; i < ACTIONS; i++) directions[i] = rng.nextInt(4);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        board = Game.createBoard(size, size, start, bomb, rng);
+        persistent = new PersistentGrid(board);
+        player = start.clone();
+        persistentPlayer = start.clone();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public TileGrid createBoard() {
+        return Game.createBoard(size, size, start, bomb, rng);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int minMoves() {
+        return PathCost.minMoves(board, new int[]{0, 0}, new int[]{size-1, size-1}); // Corner to corner, the longest search.
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] doAction() {
+        int[] target = Game.getTarget(player, directions[next++ & (ACTIONS-1)], size, size);
+        if (target != null) Game.doAction(board, player, target, bomb); // Off the board: no action, like getAction().
+        return player;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PersistentGrid.Snapshot snapshotAndAction() {
+        PersistentGrid.Snapshot snapshot = persistent.snapshot();
+        int[] target = Game.getTarget(persistentPlayer, directions[next++ & (ACTIONS-1)], size, size);
+        if (target != null) Game.doAction(persistent, persistentPlayer, target, bomb);
+        return snapshot;
+    }
+}
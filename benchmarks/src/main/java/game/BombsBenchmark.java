@@ -0,0 +1,76 @@
+/**
+ * Nearest-bomb PING and bomb-on-tile checks against the Bombs index, with a linear scan as the baseline.
+ * Bombs are spread over a 4096x4096 area; queries are random tiles in it.
+ */
+package game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BombsBenchmark {
+    private static final int AREA = 4096;
+    private static final int QUERIES = 1 << 12;
+
+    @Param({"10", "1000", "100000"})
+    public int count;
+
+    private Bombs bombs;
+    private int[] cols, rows, queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rng = new SplittableRandom(42);
+        bombs = new Bombs();
+        cols = new int[count];
+        rows = new int[count];
+        for (int i = 0; i < count; ) {
+            int col = rng.nextInt(AREA), row = rng.nextInt(AREA);
+            if (!bombs.add(col, row)) continue;
+            cols[i] = col;
+            rows[i++] = row;
+        }
+        queries = new int[QUERIES*2];
+        for (int i = 0; i < queries.length; i++) queries[i] = rng.nextInt(AREA);
+    }
+
+    @Benchmark
+    public int[] nearest() {
+        int at = (next++ & (QUERIES-1))*2;
+        return bombs.nearest(queries[at], queries[at+1]);
+    }
+
+    @Benchmark
+    public long nearestLinearScan() {
+        int at = (next++ & (QUERIES-1))*2;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            long dx = cols[i]-queries[at], dy = rows[i]-queries[at+1];
+            best = Math.min(best, dx*dx+dy*dy);
+        }
+        return best;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        int at = (next++ & (QUERIES-1))*2;
+        return bombs.contains(queries[at], queries[at+1]);
+    }
+}
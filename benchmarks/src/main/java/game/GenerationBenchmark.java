@@ -0,0 +1,56 @@
+/**
+ * Making a huge board in parallel stripes (see Game.createBoard()) on a pool of [threads] threads.
+ * The board comes out the same for every [threads]; only the time should change, down to about 1/cores.
+ */
+package game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GenerationBenchmark {
+    @Param({"1000", "4000"})
+    public int size; // Columns and rows.
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private SplittableRandom rng;
+    private int[] player, bomb;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        rng = new SplittableRandom(42);
+        player = new int[]{size/2, size/2};
+        bomb = Game.placeBomb(size, size, player, rng);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public TileGrid createBoard() {
+        return Game.createBoard(size, size, player, bomb, rng, pool);
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Input normalization and lookup, as done for every line read by getAction().
+ * legacyNormalize is the old toUpperCase().replaceAll("\\s", "") path, kept for comparison.
+ */
+package game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InputBenchmark {
+    private static final String[] LINES = {"w", "  up ", "Pi ng", "debugmode", "xyz", "RIGHT", "s", "help", "n", "Yes", "", "left"};
+
+    private int next;
+
+    @Benchmark
+    public int parse() {
+        return Commands.parse(LINES[next++ % LINES.length]);
+    }
+
+    @Benchmark
+    public String legacyNormalize() {
+        return LINES[next++ % LINES.length].toUpperCase().replaceAll("\\s", "");
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Rendering into a sink that throws the bytes away, so only composing and encoding frames is measured.
+ * renderFog draws the same board under fog of war with only the tiles around the player seen.
+ * destroyAnimation runs the whole destroyBoard() animation in DEBUG mode, which has no delays, and pingWave a PING's wave.
+ * In ANSI mode both only write the cells each frame changes.
+ */
+package game;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RenderBenchmark {
+    @Param({"false", "true"})
+    public boolean ansi;
+
+    private Renderer renderer, fogRenderer;
+    private Game game;
+    private TileGrid board;
+    private int[] player;
+    private int direction;
+    private SplittableRandom rng;
+
+    @Setup
+    public void setUp() {
+        rng = new SplittableRandom(42);
+        player = new int[]{Game.BOARD_COLUMNS/2, Game.BOARD_ROWS/2};
+        int[] bomb = Game.placeBomb(Game.BOARD_COLUMNS, Game.BOARD_ROWS, player, rng);
+        board = Game.createBoard(Game.BOARD_COLUMNS, Game.BOARD_ROWS, player, bomb, rng);
+        renderer = new Renderer(OutputStream.nullOutputStream(), StandardCharsets.UTF_8, ansi);
+        fogRenderer = new Renderer(OutputStream.nullOutputStream(), StandardCharsets.UTF_8, ansi);
+        fogRenderer.fog = new Fog(2, Game.BOARD_COLUMNS, Game.BOARD_ROWS);
+        fogRenderer.fog.reveal(player[0], player[1]);
+
+        game = new Game(InputStream.nullInputStream(), OutputStream.nullOutputStream(), StandardCharsets.UTF_8, ansi);
+        game.debugMode = true;
+        game.renderer = new Renderer(OutputStream.nullOutputStream(), StandardCharsets.UTF_8, ansi);
+        game.board = board;
+        game.playerPos = player;
+        game.bombPos = bomb;
+    }
+
+    @Benchmark
+    public void renderBoard() {
+        direction = (direction+1)%4; // Something changes every frame, like a turn in the game.
+        renderer.home();
+        renderer.board(board, player, direction);
+        renderer.flush();
+    }
+
+    @Benchmark
+    public void renderFog() {
+        direction = (direction+1)%4;
+        fogRenderer.home();
+        fogRenderer.board(board, player, direction);
+        fogRenderer.flush();
+    }
+
+    @Benchmark
+    public void destroyAnimation() {
+        game.renderer.invalidate();
+        game.renderBoard();
+        game.destroyBoard(500);
+    }
+
+    @Benchmark
+    public void pingWave() {
+        game.animate(Animation.pingWave(player[0], player[1], 8));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String genRandomChar() {
+        return Game.genRandomChar(3, rng);
+    }
+}
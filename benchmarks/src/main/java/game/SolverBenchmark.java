@@ -0,0 +1,71 @@
+/**
+ * Solver decisions per second, each one applied to the board like a turn of the game.
+ * A finished game is put back to its start with a PersistentGrid snapshot and played again by a new Solver,
+ * so making the Solver is measured along with its decisions, but making the board is not.
+ */
+package game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SolverBenchmark {
+    @Param({"9", "100", "1000"})
+    public int size; // Columns and rows.
+
+    private Simulation.State game;
+    private PersistentGrid board;
+    private PersistentGrid.Snapshot start;
+    private Solver solver;
+    private int[] player;
+    private int pingsLeft;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = Simulation.newGame(size, size, Game.startingMoves(size, size), Game.STARTING_PINGS, 42, 0);
+        board = new PersistentGrid(game.board);
+        start = board.snapshot();
+        restart();
+    }
+
+    private void restart() {
+        board.restore(start);
+        player = game.start.clone();
+        pingsLeft = Game.STARTING_PINGS;
+        solver = new Solver(board, size, size, player, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int decision() {
+        int action = solver.next(player, pingsLeft);
+        if (action == -1) { // No tile left that can hold the bomb: start over rather than act on nothing.
+            restart();
+            return action;
+        }
+        if (action == Solver.PING) {
+            pingsLeft--;
+            solver.ping(player, Math.hypot(game.bombPos[0]-player[0], game.bombPos[1]-player[1]));
+            return action;
+        }
+        int[] target = Game.getTarget(player, action, size, size);
+        Game.doAction(board, player, target, game.bombPos);
+        solver.observe(target[0], target[1]);
+        if (player[0] == game.bombPos[0] && player[1] == game.bombPos[1]) restart();
+        return action;
+    }
+}
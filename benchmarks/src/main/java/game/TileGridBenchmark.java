@@ -0,0 +1,113 @@
+/**
+ * The packed TileGrid against the String[][] board it replaced, for the same random boards and actions.
+ * fill* makes a whole board: its gc.alloc.rate.norm is the memory a board takes. act* hits or enters a random tile
+ * from a pre-made stream, like doAction() did, on a board made again every iteration so it does not wear down.
+ * The legacy* methods are the old board and the old string switch, kept for comparison.
+ */
+package game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TileGridBenchmark {
+    private static final int ACTIONS = 1 << 16;
+    private static final String TILE_STRONG = "___", TILE_WEAK = "...", TILE_EMPTY = "   "; // The old board's tiles.
+    private static final String[] GLYPHS = {TILE_EMPTY, TILE_WEAK, TILE_STRONG}; // By TileGrid id.
+
+    @Param({"1000", "4000"})
+    public int size; // Columns and rows.
+
+    private int[] tiles; // The board both are filled from, row by row.
+    private int[] targets; // Tiles acted on, as row*size+col.
+    private TileGrid board;
+    private String[][] legacyBoard;
+    private final int[] player = new int[2];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        SplittableRandom rng = new SplittableRandom(42);
+        tiles = new int[size*size];
+        for (int i = 0; i < tiles.length; i++) tiles[i] = rng.nextInt(3);
+        targets = new int[ACTIONS];
+        for (int i = 0; i < ACTIONS; i++) targets[i] = rng.nextInt(size*size);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        board = fill();
+        legacyBoard = legacyFill();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TileGrid fill() {
+        TileGrid board = new TileGrid(size, size);
+        for (int row = 0, i = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) board.set(col, row, tiles[i++]);
+        }
+        return board;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String[][] legacyFill() {
+        String[][] board = new String[size][size];
+        for (int row = 0, i = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) board[row][col] = GLYPHS[tiles[i++]];
+        }
+        return board;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] act() {
+        int target = targets[next++ & (ACTIONS-1)];
+        int col = target%size, row = target/size;
+        int tile = board.get(col, row);
+        if (board.types.passable(tile)) {
+            player[0] = col;
+            player[1] = row;
+        }
+        else board.set(col, row, board.types.hit(tile, false));
+        return player;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] legacyAct() {
+        int target = targets[next++ & (ACTIONS-1)];
+        int col = target%size, row = target/size;
+        switch (legacyBoard[row][col]) {
+            case ("___"):
+                legacyBoard[row][col] = TILE_WEAK;
+                break;
+            case ("..."):
+                legacyBoard[row][col] = TILE_EMPTY;
+                break;
+            default:
+                player[0] = col;
+                player[1] = row;
+        }
+        return player;
+    }
+}
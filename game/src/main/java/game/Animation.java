@@ -0,0 +1,197 @@
+/**
+ * Effects drawn over the board on screen at a fixed frame rate, like the explosion after losing or the wave of a PING.
+ * An Effect covers cells of the view with glyphs of its own (or uncovers them) each frame, and only the cells it
+ * touched that frame are drawn again: in ANSI mode, only those are written (see Renderer.cells()).
+ * A frame costs as much as the cells that change in it, not the size of the view.
+ *
+ * Rubble comes from a pool of glyphs made once, so covering a cell is a random index and a copy of 3 chars.
+ * Covered cells are bits, one long per 64 cells of a row like in Fog, so the renderer reads them 64 at a time.
+ */
+package game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+public class Animation {
+    public static final int FPS = 30;
+    public static final int FRAME_MS = 1000/FPS;
+    public static final String RUBBLE = "!@#$%^&*()-=+[]{};:\'\"<>/?\\";
+    public static final String WAVE = " ~ ";
+    private static final int POOL_BITS = 10;
+    private static final char[] POOL = new char[(1 << POOL_BITS)*3]; // Glyphs of rubble, 3 chars each.
+
+    static {
+        SplittableRandom rng = new SplittableRandom(0);
+        for (int i = 0; i < POOL.length; i++) POOL[i] = RUBBLE.charAt(rng.nextInt(RUBBLE.length()));
+    }
+
+    // Something drawn over the board, a frame at a time.
+    public interface Effect {
+        // Covers and uncovers cells of [animation] for frame [frame] (counting from 0). Returns whether more frames follow.
+        boolean frame(Animation animation, int frame);
+
+        // Frames in a step of the effect, like a row of the explosion. Without ANSI, where a frame draws the whole board
+        // again, only the last frame of each step is drawn.
+        default int step() {
+            return 1;
+        }
+    }
+
+    public final int left, top, columns, rows; // The view covered, in board coordinates.
+    private final RandomGenerator rng;
+    private final int words; // Longs per row of bits.
+    private final char[] glyphs; // 3 chars per cell, shown where covered.
+    private final long[] covered, touched; // Cells covered, and cells touched since the last frame was drawn.
+    private int[] changed = new int[64]; // Cells touched since the last frame was drawn, as row*columns+col.
+    private int changes;
+
+    // An animation over the [columns] by [rows] view from ([left], [top]) of the board, picking rubble with [rng].
+    public Animation(int left, int top, int columns, int rows, RandomGenerator rng) {
+        this.left = left;
+        this.top = top;
+        this.columns = columns;
+        this.rows = rows;
+        this.rng = rng;
+        words = (columns+63) >> 6;
+        glyphs = new char[columns*rows*3];
+        covered = new long[words*rows];
+        touched = new long[words*rows];
+    }
+
+    // Covers view cell ([col], [row]) with a random glyph of rubble.
+    public void rubble(int col, int row) {
+        System.arraycopy(POOL, rng.nextInt(1 << POOL_BITS)*3, glyphs, (row*columns+col)*3, 3);
+        cover(col, row);
+    }
+
+    // Covers view cell ([col], [row]) with the 3 chars of [glyph].
+    public void cover(int col, int row, String glyph) {
+        glyph.getChars(0, 3, glyphs, (row*columns+col)*3);
+        cover(col, row);
+    }
+
+    // Shows the board at view cell ([col], [row]) again.
+    public void uncover(int col, int row) {
+        int word = row*words+(col >> 6);
+        long bit = 1L << col;
+        if ((covered[word] & bit) == 0) return;
+        covered[word] &= ~bit;
+        touch(word, bit, row*columns+col);
+    }
+
+    // Shows the board everywhere again.
+    public void uncoverAll() {
+        for (int word = 0; word < covered.length; word++) {
+            for (long bits = covered[word]; bits != 0; bits &= bits-1) {
+                int row = word/words, col = ((word%words) << 6)+Long.numberOfTrailingZeros(bits);
+                touch(word, Long.lowestOneBit(bits), row*columns+col);
+            }
+            covered[word] = 0;
+        }
+    }
+
+    // Which of the 64 view cells from ([col], [row]) rightwards are covered: bit i is column [col]+i. [col] is a multiple of 64.
+    public long covered(int col, int row) {
+        return covered[row*words+(col >> 6)];
+    }
+
+    // Whether view cell ([col], [row]) is covered.
+    public boolean covers(int col, int row) {
+        return (covered[row*words+(col >> 6)] >>> col & 1) != 0;
+    }
+
+    // Copies the 3 chars covering view cell ([col], [row]) into [into] at [at].
+    public void glyph(int col, int row, char[] into, int at) {
+        System.arraycopy(glyphs, (row*columns+col)*3, into, at, 3);
+    }
+
+    // Cells touched since the last frame was drawn.
+    public int changes() {
+        return changes;
+    }
+
+    // The [i]th cell touched since the last frame was drawn, as row*columns+col.
+    public int changed(int i) {
+        return changed[i];
+    }
+
+    // Forgets the cells touched, once a frame is drawn.
+    public void drawn() {
+        for (int i = 0; i < changes; i++) {
+            int cell = changed[i], row = cell/columns;
+            touched[row*words+((cell-row*columns) >> 6)] = 0;
+        }
+        changes = 0;
+    }
+
+    // Writes [amount] chars of rubble into [into] from [at], picked with [rng].
+    public static void rubble(char[] into, int at, int amount, RandomGenerator rng) {
+        for (int i = 0; i < amount; i++) into[at+i] = RUBBLE.charAt(rng.nextInt(RUBBLE.length()));
+    }
+
+    // Rubble sweeping down the view, a row every [msPerRow]. Each row churns while it is being destroyed, then settles.
+    public static Effect explosion(int msPerRow) {
+        int framesPerRow = Math.max(1, msPerRow*FPS/1000);
+        return new Effect() {
+            @Override
+            public boolean frame(Animation animation, int frame) {
+                int row = frame/framesPerRow;
+                for (int col = 0; col < animation.columns; col++) animation.rubble(col, row);
+                return frame+1 < animation.rows*framesPerRow;
+            }
+
+            @Override
+            public int step() {
+                return framesPerRow;
+            }
+        };
+    }
+
+    // A ring spreading from board tile ([col], [row]) out to [radius] tiles, in at most a second, then gone.
+    public static Effect pingWave(int col, int row, double radius) {
+        int frames = Math.max(1, Math.min(FPS, (int) Math.ceil(radius)));
+        return (animation, frame) -> {
+            animation.uncoverAll();
+            if (frame == frames) return false;
+            animation.ring(col-animation.left, row-animation.top, (int) Math.round(radius*(frame+1)/frames));
+            return true;
+        };
+    }
+
+    // Covers the view cells [r] tiles (rounded down) from view cell ([col], [row]) with WAVE.
+    private void ring(int col, int row, int r) {
+        if (r > columns+rows) return; // Past every cell of the view.
+        for (int y = Math.max(0, row-r); y <= Math.min(rows-1, row+r); y++) {
+            int dy = y-row;
+            int outer = below((r+1)*(r+1)-dy*dy), inner = below(r*r-dy*dy); // Widest dx inside each circle.
+            for (int dx = inner+1; dx <= outer; dx++) {
+                if (col+dx >= 0 && col+dx < columns) cover(col+dx, y, WAVE);
+                if (dx > 0 && col-dx >= 0 && col-dx < columns) cover(col-dx, y, WAVE);
+            }
+        }
+    }
+
+    // The largest x with x*x < [n], or -1 if there is none.
+    private static int below(int n) {
+        if (n <= 0) return -1;
+        int x = (int) Math.sqrt(n);
+        while (x*x >= n) x--;
+        while ((x+1)*(x+1) < n) x++;
+        return x;
+    }
+
+    private void cover(int col, int row) {
+        int word = row*words+(col >> 6);
+        long bit = 1L << col;
+        covered[word] |= bit;
+        touch(word, bit, row*columns+col);
+    }
+
+    // Notes that [cell] (bit [bit] of [word]) changed, once per frame.
+    private void touch(int word, long bit, int cell) {
+        if ((touched[word] & bit) != 0) return;
+        touched[word] |= bit;
+        if (changes == changed.length) changed = Arrays.copyOf(changed, changes*2);
+        changed[changes++] = cell;
+    }
+}
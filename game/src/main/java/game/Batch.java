@@ -0,0 +1,104 @@
+/**
+ * Batch mode: plays scripted games as fast as the CPU allows, for regression suites.
+ * No pacing, no drawing and no debug output; each game is played on a Simulation.State, the same board
+ * Game would make from the same seed, by State.turn(), and reported as one machine-readable line.
+ *
+ * Script, one entry per line, read with a LineReader:
+ *      For each game: the start COLUMN, the start ROW, then commands as typed in the game ([W], [PING], ...).
+ *      A game ends once the bomb is found or the moves run out, and the next line starts the next game.
+ *      Lines that are not numbers where a number is expected are skipped. Commands other than moves and PING
+ *      are counted as ignored. Moves off the board are counted as rejected and, like in the game, use no move.
+ * The first game uses the seed and later ones draw their seeds from it, like a Game session, so a script
+ * played here and typed into the game give the same boards.
+ *
+ * Output:
+ *      game=1 seed=99 start=3,4 result=WON moves_left=23 pings_used=0 actions=13 rejected=0 ignored=0
+ *      games=1 won=1 lost=0 unfinished=0 lines=17 millis=1
+ *
+ * Usage:
+ *      java -jar game/target/game-1.0-SNAPSHOT.jar --batch [file, or - for stdin] [--seed N] [--board CxR]
+ */
+package game;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+public class Batch {
+    // Plays every game scripted in [in] on [columns] by [rows] boards, the first with [seed]. Writes the results to [out].
+    public static void run(InputStream in, OutputStream out, long seed, int columns, int rows) throws IOException {
+        LineReader script = new LineReader(in);
+        PrintStream results = new PrintStream(out, false, StandardCharsets.US_ASCII);
+        StringBuilder line = new StringBuilder(128);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        long games = 0, won = 0, lost = 0, unfinished = 0;
+        for (long gameSeed = seed; ; gameSeed = seeds.nextLong()) {
+            int col = nextNumber(script), row = nextNumber(script);
+            if (row == LineReader.NOT_A_NUMBER) break; // No more games.
+            int[] startPos = {Math.max(0, Math.min(col, columns-1)), Math.max(0, Math.min(row, rows-1))}; // Like getInitialPos().
+            Simulation.State game = new Simulation.State(columns, rows, Game.startingMoves(columns, rows), Game.STARTING_PINGS, gameSeed, startPos);
+            int actions = 0, rejected = 0, ignored = 0;
+            boolean ended = true;
+            while (!game.over()) {
+                if (!script.next()) {
+                    ended = false;
+                    break;
+                }
+                int action = action(script.command());
+                if (action == -1) {
+                    ignored++;
+                    continue;
+                }
+                int done = game.turn(action);
+                if (done == Simulation.ACTED) actions++;
+                else if (done == Simulation.REJECTED) rejected++;
+            }
+            String result = (!ended) ? "UNFINISHED" : (game.bombFound()) ? "WON" : "LOST";
+            games++;
+            if (!ended) unfinished++;
+            else if (game.bombFound()) won++;
+            else lost++;
+            line.setLength(0);
+            line.append("game=").append(games).append(" seed=").append(gameSeed)
+                .append(" start=").append(startPos[0]).append(',').append(startPos[1])
+                .append(" result=").append(result).append(" moves_left=").append(game.movesLeft)
+                .append(" pings_used=").append(Game.STARTING_PINGS-game.pingsLeft).append(" actions=").append(actions)
+                .append(" rejected=").append(rejected).append(" ignored=").append(ignored);
+            results.println(line);
+            if (!ended) break;
+        }
+        results.printf("games=%d won=%d lost=%d unfinished=%d lines=%d millis=%d%n",
+            games, won, lost, unfinished, script.lines(), (System.nanoTime()-start)/1_000_000);
+        results.flush();
+    }
+
+    // The action (as Game.direction, or Journal.PING) of [command], or -1 if it isn't one.
+    private static int action(int command) {
+        switch (command) {
+            case (Commands.EAST):
+                return 0;
+            case (Commands.NORTH):
+                return 1;
+            case (Commands.WEST):
+                return 2;
+            case (Commands.SOUTH):
+                return 3;
+            case (Commands.PING):
+                return Journal.PING;
+            default:
+                return -1;
+        }
+    }
+
+    // Reads up to the next line that is a number. Returns it, or NOT_A_NUMBER if the script ended first.
+    private static int nextNumber(LineReader script) throws IOException {
+        while (script.next()) {
+            int number = script.number();
+            if (number != LineReader.NOT_A_NUMBER) return number;
+        }
+        return LineReader.NOT_A_NUMBER;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * The tiles a game is played on: a fixed TileGrid, or an endless World.
+ * Coordinates are (column, row), growing right and down. Tiles are ids of its types(), see TileTypes.
+ */
+package game;
+
+public interface Board {
+    // Gets the tile at ([col], [row]).
+    int get(int col, int row);
+
+    // Sets the tile at ([col], [row]) to [tile].
+    void set(int col, int row, int tile);
+
+    // Whether ([col], [row]) is part of the board. Moves off the board are not allowed.
+    boolean contains(int col, int row);
+
+    // What the tile ids mean.
+    TileTypes types();
+
+    // Hits the tile at ([col], [row]) once. [bomb] is whether the bomb is under it. Returns the tile before the hit.
+    default int hit(int col, int row, boolean bomb) {
+        int tile = get(col, row);
+        int next = types().hit(tile, bomb);
+        if (next != tile) set(col, row, next);
+        return tile;
+    }
+
+    // Whether the player can move into the tile at ([col], [row]).
+    default boolean canEnter(int col, int row) {
+        return types().passable(get(col, row));
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Where the bombs still to defuse are, indexed for the two questions the game asks every turn:
+ *      Is there a bomb on this tile? (when a tile is hit or entered)
+ *      How far is the nearest bomb? (PING)
+ *
+ * Bombs are kept in a uniform grid of CELL_SIZE x CELL_SIZE buckets, in a hash table from bucket coordinates,
+ * so it works the same on a TileGrid and on an endless World. The table is open addressing on packed long keys,
+ * since a HashMap<Long, ...> boxes a key for every lookup and a nearest query does dozens of them. A tile check looks at a single bucket.
+ * A nearest query searches rings of buckets outward from the player's, and stops once the next ring is
+ * further away than the best bomb found so far. That is a handful of buckets when bombs are dense,
+ * and never more than scanning every bucket once when they are sparse.
+ */
+package game;
+
+import java.util.Arrays;
+public class Bombs {
+    public static final int CELL_BITS = 4;
+    public static final int CELL_SIZE = 1 << CELL_BITS;
+
+    private long[] keys = new long[16];
+    private Bucket[] table = new Bucket[16]; // null for a free slot.
+    private int buckets; // Slots in use.
+    private int size;
+
+    private static class Bucket {
+        int[] cols = new int[4], rows = new int[4];
+        int size;
+    }
+
+    // Bombs not yet defused.
+    public int size() {
+        return size;
+    }
+
+    // Adds a bomb at ([col], [row]). Returns false if there already is one.
+    public boolean add(int col, int row) {
+        long key = key(col >> CELL_BITS, row >> CELL_BITS);
+        Bucket bucket = bucket(key);
+        if (bucket == null) bucket = insert(key);
+        if (indexOf(bucket, col, row) >= 0) return false;
+        if (bucket.size == bucket.cols.length) {
+            bucket.cols = Arrays.copyOf(bucket.cols, bucket.size*2);
+            bucket.rows = Arrays.copyOf(bucket.rows, bucket.size*2);
+        }
+        bucket.cols[bucket.size] = col;
+        bucket.rows[bucket.size] = row;
+        bucket.size++;
+        size++;
+        return true;
+    }
+
+    // Whether there is a bomb at ([col], [row]).
+    public boolean contains(int col, int row) {
+        Bucket bucket = bucket(key(col >> CELL_BITS, row >> CELL_BITS));
+        return bucket != null && indexOf(bucket, col, row) >= 0;
+    }
+
+    // Defuses the bomb at ([col], [row]). Returns false if there was none.
+    public boolean remove(int col, int row) {
+        long key = key(col >> CELL_BITS, row >> CELL_BITS);
+        Bucket bucket = bucket(key);
+        int at = (bucket == null) ? -1 : indexOf(bucket, col, row);
+        if (at < 0) return false;
+        bucket.size--;
+        bucket.cols[at] = bucket.cols[bucket.size];
+        bucket.rows[at] = bucket.rows[bucket.size];
+        if (bucket.size == 0) delete(key);
+        size--;
+        return true;
+    }
+
+    // Finds the bomb closest to ([col], [row]) (straight line). Returns its position, or null if there are none left.
+    public int[] nearest(int col, int row) {
+        if (size == 0) return null;
+        int bx = col >> CELL_BITS, by = row >> CELL_BITS;
+        int[] best = new int[2];
+        long bestSquared = Long.MAX_VALUE;
+        int visited = 0;
+        for (int ring = 0; ; ring++) {
+            // Every bucket of this ring is at least (ring-1)*CELL_SIZE+1 tiles away on one axis.
+            long closest = (long) Math.max(0, ring-1)*CELL_SIZE+((ring > 0) ? 1 : 0);
+            if (closest*closest > bestSquared) return best;
+            if (visited == buckets) return best; // Seen every bomb.
+            if (8L*ring > buckets) break; // Sparse: this ring costs more lookups than there are buckets.
+            for (int dy = -ring; dy <= ring; dy++) {
+                boolean edge = (dy == -ring || dy == ring);
+                for (int dx = -ring; dx <= ring; dx += (edge) ? 1 : 2*ring) {
+                    Bucket bucket = bucket(key(bx+dx, by+dy));
+                    if (bucket == null) continue;
+                    visited++;
+                    bestSquared = closest(bucket, col, row, best, bestSquared);
+                }
+            }
+        }
+        for (Bucket bucket : table) {
+            if (bucket != null) bestSquared = closest(bucket, col, row, best, bestSquared);
+        }
+        return best;
+    }
+
+    // Straight-line distance from ([col], [row]) to the nearest bomb, like PING. NaN if there are none left.
+    public double nearestDistance(int col, int row) {
+        int[] bomb = nearest(col, row);
+        return (bomb == null) ? Double.NaN : Math.hypot(bomb[0]-col, bomb[1]-row);
+    }
+
+    // Updates [best] to the bomb in [bucket] closest to ([col], [row]), if it beats [bestSquared]. Returns the new best.
+    private static long closest(Bucket bucket, int col, int row, int[] best, long bestSquared) {
+        for (int i = 0; i < bucket.size; i++) {
+            long dx = (long) bucket.cols[i]-col, dy = (long) bucket.rows[i]-row;
+            long squared = dx*dx+dy*dy;
+            if (squared < bestSquared) {
+                bestSquared = squared;
+                best[0] = bucket.cols[i];
+                best[1] = bucket.rows[i];
+            }
+        }
+        return bestSquared;
+    }
+
+    private static int indexOf(Bucket bucket, int col, int row) {
+        for (int i = 0; i < bucket.size; i++) {
+            if (bucket.cols[i] == col && bucket.rows[i] == row) return i;
+        }
+        return -1;
+    }
+
+    // Finds the bucket at [key], or null.
+    private Bucket bucket(long key) {
+        int mask = keys.length-1;
+        for (int slot = slot(key, mask); table[slot] != null; slot = (slot+1) & mask) {
+            if (keys[slot] == key) return table[slot];
+        }
+        return null;
+    }
+
+    // Adds an empty bucket at [key], which must not be in the table. Returns it.
+    private Bucket insert(long key) {
+        if ((buckets+1)*2 > keys.length) resize(keys.length*2); // At most half full, so probes stay short.
+        int mask = keys.length-1;
+        int slot = slot(key, mask);
+        while (table[slot] != null) slot = (slot+1) & mask;
+        keys[slot] = key;
+        buckets++;
+        return table[slot] = new Bucket();
+    }
+
+    // Removes the bucket at [key], shifting back the ones probed past it so lookups still find them.
+    private void delete(long key) {
+        int mask = keys.length-1;
+        int slot = slot(key, mask);
+        while (keys[slot] != key || table[slot] == null) slot = (slot+1) & mask;
+        for (int next = (slot+1) & mask; table[next] != null; next = (next+1) & mask) {
+            int home = slot(keys[next], mask);
+            // Move [next] into the hole unless its home lies cyclically in (slot, next].
+            if (((next-home) & mask) >= ((next-slot) & mask)) {
+                keys[slot] = keys[next];
+                table[slot] = table[next];
+                slot = next;
+            }
+        }
+        table[slot] = null;
+        buckets--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Bucket[] oldTable = table;
+        keys = new long[capacity];
+        table = new Bucket[capacity];
+        int mask = capacity-1;
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] == null) continue;
+            int slot = slot(oldKeys[i], mask);
+            while (table[slot] != null) slot = (slot+1) & mask;
+            keys[slot] = oldKeys[i];
+            table[slot] = oldTable[i];
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        return (int) Game.mixSeed(key) & mask;
+    }
+
+    private static long key(int bx, int by) {
+        return ((long) bx << 32) | (by & 0xFFFFFFFFL);
+    }
+}
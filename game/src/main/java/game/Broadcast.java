@@ -0,0 +1,252 @@
+/**
+ * Lets spectators watch a game live over localhost, e.g. with telnet localhost 2324.
+ *
+ * The game publishes each frame and each line of text once, as an immutable buffer kept in a ring of the latest
+ * KEPT messages, and moves on: it never waits for a spectator, and publishing costs the same for 1 or 1000 of them.
+ * One selector thread sends the messages to every spectator, each through its own view of the shared buffers
+ * (nothing is copied per spectator), with gathering writes of up to BATCH messages at a time.
+ *
+ * Every frame is the whole board, drawn over the last one. So a spectator that falls behind (its socket is full)
+ * skips straight to the latest frame, and the text after it, instead of queueing every frame it missed.
+ * New spectators start from the latest frame too.
+ * The game publishes through its Typewriter (see Game.spectate()), so frames and text go out when the player sees them,
+ * at the pace of the animation, not when they are queued.
+ */
+package game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+public class Broadcast implements AutoCloseable {
+    public static final int DEFAULT_PORT = 2324;
+    private static final int KEPT_BITS = 10;
+    private static final int KEPT = 1 << KEPT_BITS; // Messages kept for spectators that are behind.
+    private static final int BATCH = 16; // Messages sent with one write at most.
+
+    // A published frame or piece of text.
+    private static class Message {
+        final long number;
+        final ByteBuffer bytes; // Read-only, shared by every spectator.
+
+        Message(long number, ByteBuffer bytes) {
+            this.number = number;
+            this.bytes = bytes;
+        }
+    }
+
+    // One spectator's connection, on the selector thread only.
+    private static class Spectator {
+        final SocketChannel channel;
+        final ByteBuffer[] sending = new ByteBuffer[BATCH]; // Views of the messages being sent, from [from] to [to].
+        int from, to;
+        long next; // Number of the message after those being sent.
+
+        Spectator(SocketChannel channel, long next) {
+            this.channel = channel;
+            this.next = next;
+        }
+    }
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Message[] ring = new Message[KEPT]; // Message n is at n % KEPT, until KEPT more are published.
+    private volatile long published; // Messages published so far.
+    private volatile long lastFrame = -1, frameBefore = -1; // Numbers of the latest two frames, -1 if none.
+    private final AtomicBoolean sleeping = new AtomicBoolean(); // Whether the selector thread may be waiting in select().
+    private final ByteBuffer drain = ByteBuffer.allocate(256); // Whatever spectators type, thrown away.
+    private volatile int spectators;
+    private volatile boolean closed;
+
+    // Starts taking spectators on localhost [port]; 0 picks any free port.
+    public Broadcast(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        Threads.start("broadcast", this::run);
+    }
+
+    // The port being listened on.
+    public int port() {
+        try {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Spectators connected right now.
+    public int spectators() {
+        return spectators;
+    }
+
+    // Publishes [text] to every spectator. Only ever called from one thread (the game's typewriter).
+    public void text(String text) {
+        publish(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), false);
+    }
+
+    // Publishes [len] bytes of [bytes] from [off] as a frame: the whole board, drawn over the last one. The bytes are copied once.
+    public void frame(byte[] bytes, int off, int len) {
+        byte[] copy = new byte[len];
+        System.arraycopy(bytes, off, copy, 0, len);
+        publish(ByteBuffer.wrap(copy), true);
+    }
+
+    // An OutputStream that publishes each write as a frame, on [when]. For a Renderer that flushes a frame per write.
+    // The bytes are copied right away, and only published when [when] gets to them.
+    public OutputStream frames(Executor when) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) {
+                byte[] copy = new byte[len];
+                System.arraycopy(bytes, off, copy, 0, len);
+                when.execute(() -> publish(ByteBuffer.wrap(copy), true));
+            }
+        };
+    }
+
+    // Hangs up on every spectator and stops listening.
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    private void publish(ByteBuffer bytes, boolean frame) {
+        long number = published;
+        ring[(int) (number & (KEPT-1))] = new Message(number, bytes.asReadOnlyBuffer());
+        if (frame) {
+            frameBefore = lastFrame;
+            lastFrame = number;
+        }
+        published = number+1;
+        if (sleeping.getAndSet(false)) selector.wakeup();
+    }
+
+    private void run() {
+        long sent = 0; // Messages published when the spectators were last caught up.
+        try {
+            while (!closed) {
+                sleeping.set(true);
+                if (published == sent) selector.select();
+                else selector.selectNow();
+                sleeping.set(false);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else {
+                        if (key.isReadable()) read(key);
+                        if (key.isValid() && key.isWritable()) send(key);
+                    }
+                }
+                selector.selectedKeys().clear();
+                long upTo = published;
+                if (upTo != sent) {
+                    for (SelectionKey key : selector.keys()) {
+                        if (key.isValid() && key.attachment() != null && (key.interestOps() & SelectionKey.OP_WRITE) == 0) send(key);
+                    }
+                    sent = upTo;
+                }
+            }
+        } catch (IOException e) {
+            // Can't take spectators anymore.
+        } finally {
+            try {
+                for (SelectionKey key : selector.keys()) key.channel().close();
+                selector.close();
+            } catch (IOException e) {
+                // Closing anyway.
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            long frame = lastFrame;
+            Spectator spectator = new Spectator(channel, (frame >= 0) ? frame : published);
+            send(channel.register(selector, SelectionKey.OP_READ, spectator));
+            spectators++;
+        }
+    }
+
+    // Reads and drops what a spectator typed, and notices when they hang up.
+    private void read(SelectionKey key) {
+        try {
+            int read;
+            do {
+                drain.clear();
+                read = ((SocketChannel) key.channel()).read(drain);
+            } while (read > 0);
+            if (read < 0) hangUp(key);
+        } catch (IOException e) {
+            hangUp(key);
+        }
+    }
+
+    // Sends a spectator as much as its socket takes, waiting for OP_WRITE if it fills up.
+    private void send(SelectionKey key) {
+        Spectator spectator = (Spectator) key.attachment();
+        try {
+            while (true) {
+                if (spectator.from == spectator.to && !next(spectator)) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+                spectator.channel.write(spectator.sending, spectator.from, spectator.to-spectator.from);
+                while (spectator.from < spectator.to && !spectator.sending[spectator.from].hasRemaining()) {
+                    spectator.sending[spectator.from++] = null;
+                }
+                if (spectator.from < spectator.to) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            hangUp(key);
+        }
+    }
+
+    // Picks the next messages to send a spectator that has sent everything before. Returns false if there are none yet.
+    // One that has missed a frame skips to the latest, and so does one the ring has lapped.
+    private boolean next(Spectator spectator) {
+        long upTo = published, frame = lastFrame;
+        if (spectator.next <= frameBefore || upTo-spectator.next > KEPT) spectator.next = Math.max(frame, upTo-KEPT);
+        spectator.from = spectator.to = 0;
+        while (spectator.to < BATCH && spectator.next < upTo) {
+            Message message = ring[(int) (spectator.next & (KEPT-1))];
+            if (message == null || message.number != spectator.next) break; // Lapped since; caught next time.
+            spectator.sending[spectator.to++] = message.bytes.duplicate();
+            spectator.next++;
+        }
+        return spectator.to > 0;
+    }
+
+    private void hangUp(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Gone anyway.
+        }
+        spectators--;
+    }
+}
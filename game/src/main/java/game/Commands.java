@@ -0,0 +1,124 @@
+/**
+ * Every command the player can type, with all of its aliases, in one place.
+ * parse() normalizes and looks up input in a single pass over the characters (or bytes):
+ * whitespace is skipped and letters are upper-cased on the fly while walking a trie of the aliases,
+ * so no regex is compiled and no strings are made, even for input that matches nothing.
+ *
+ * Each prompt decides what a command means there (e.g. [S] is SOUTH, but not a NO).
+ */
+package game;
+
+import java.util.Arrays;
+public class Commands {
+    public static final int UNKNOWN = -1; // Also returned for empty input.
+    public static final int NORTH = 0;
+    public static final int SOUTH = 1;
+    public static final int WEST = 2;
+    public static final int EAST = 3;
+    public static final int PING = 4;
+    public static final int HELP = 5;
+    public static final int DEBUG = 6;
+    public static final int YES = 7;
+    public static final int NO = 8;
+    public static final int SKIP = 9;
+    public static final int UNDO = 10;
+    public static final int REWIND = 11;
+    public static final int HINT = 12;
+
+    // Aliases, indexed by command.
+    private static final String[][] ALIASES = {
+        {"NORTH", "UP", "W"},
+        {"SOUTH", "DOWN", "S"},
+        {"WEST", "LEFT", "A"},
+        {"EAST", "RIGHT", "D"},
+        {"PING"},
+        {"HELP"},
+        {"DEBUG", "DEBUGMODE"},
+        {"YES", "Y"},
+        {"NO", "N"},
+        {"SKIP"},
+        {"UNDO", "U"},
+        {"REWIND"},
+        {"HINT", "H"},
+    };
+
+    private static final int LETTERS = 26;
+    // Trie over A to Z. Node 0 is the root; a child of 0 means there is none.
+    private static int[] children = new int[LETTERS*64];
+    private static int[] commands = new int[64]; // Command ending at each node, or UNKNOWN.
+    private static int nodes = 1;
+
+    static {
+        commands[0] = UNKNOWN;
+        for (int command = 0; command < ALIASES.length; command++) {
+            for (String alias : ALIASES[command]) register(alias, command);
+        }
+    }
+
+    // Gets the command typed in [input]. Returns UNKNOWN if there is none.
+    public static int parse(CharSequence input) {
+        int node = 0;
+        for (int i = 0; i < input.length(); i++) {
+            int c = input.charAt(i);
+            if (isSpace(c)) continue;
+            if ((node = step(node, c)) == 0) return UNKNOWN;
+        }
+        return commands[node];
+    }
+
+    // Gets the command typed in [len] chars of [input] from [off]. Returns UNKNOWN if there is none.
+    public static int parse(char[] input, int off, int len) {
+        int node = 0;
+        for (int i = off; i < off+len; i++) {
+            int c = input[i];
+            if (isSpace(c)) continue;
+            if ((node = step(node, c)) == 0) return UNKNOWN;
+        }
+        return commands[node];
+    }
+
+    // Gets the command typed in [len] bytes of [input] from [off], read as ASCII. Returns UNKNOWN if there is none.
+    public static int parse(byte[] input, int off, int len) {
+        int node = 0;
+        for (int i = off; i < off+len; i++) {
+            int c = input[i] & 0xFF;
+            if (isSpace(c)) continue;
+            if ((node = step(node, c)) == 0) return UNKNOWN;
+        }
+        return commands[node];
+    }
+
+    // Gets the aliases of [command], the first being its full name.
+    public static String[] aliases(int command) {
+        return ALIASES[command].clone();
+    }
+
+    // Follows [c] from [node], upper-casing it. Returns 0 if there is nowhere to go.
+    private static int step(int node, int c) {
+        if (c >= 'a' && c <= 'z') c -= 'a'-'A';
+        else if (c < 'A' || c > 'Z') return 0;
+        return children[node*LETTERS+c-'A'];
+    }
+
+    // Same characters as \s in a regex.
+    private static boolean isSpace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static void register(String alias, int command) {
+        int node = 0;
+        for (int i = 0; i < alias.length(); i++) {
+            int at = node*LETTERS+alias.charAt(i)-'A';
+            if (children[at] == 0) {
+                if (nodes == commands.length) {
+                    commands = Arrays.copyOf(commands, nodes*2);
+                    children = Arrays.copyOf(children, nodes*2*LETTERS);
+                }
+                commands[nodes] = UNKNOWN;
+                children[at] = nodes++;
+            }
+            node = children[at];
+        }
+        commands[node] = command;
+    }
+}
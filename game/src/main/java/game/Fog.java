@@ -0,0 +1,101 @@
+/**
+ * Fog of war: which tiles the player has seen. Tiles within [radius] of the player are revealed and stay revealed.
+ *
+ * Seen tiles are bits, in BLOCK x BLOCK blocks with one long per row, made the first time something in them is seen.
+ * It works the same on a grid and on an endless World, and parts of the board never visited cost nothing.
+ * reveal() sets each row of the circle around the player with one or two masked ORs, so a move costs
+ * O(radius) word operations however large the board is. bits() gives the renderer 64 tiles of a row at once,
+ * so it can skip whole hidden spans without looking at the board.
+ */
+package game;
+
+import java.util.HashMap;
+public class Fog {
+    public static final int BLOCK_BITS = 6;
+    public static final int BLOCK = 1 << BLOCK_BITS; // Tiles per side of a block; a block row is one long.
+
+    public final int radius;
+    public long revealed; // Tiles seen so far.
+    private final int columns, rows; // Edges of the grid, or 0 for none (World).
+    private final int[] halfWidths; // Half the width of the circle, indexed by row offset + radius.
+    private final HashMap<Long, long[]> blocks = new HashMap<>();
+    private long lastKey; // The last block used, to skip the map lookup (and the boxing) for runs on the same block.
+    private long[] last;
+
+    // Fog over an endless board, revealing tiles within [radius].
+    public Fog(int radius) {
+        this(radius, 0, 0);
+    }
+
+    // Fog over a [columns] by [rows] grid, revealing tiles within [radius]. Nothing outside the grid is revealed.
+    public Fog(int radius, int columns, int rows) {
+        if (radius < 0) throw new IllegalArgumentException("Fog radius must not be negative, got " + radius);
+        this.radius = radius;
+        this.columns = columns;
+        this.rows = rows;
+        halfWidths = new int[2*radius+1];
+        for (int dy = -radius; dy <= radius; dy++) halfWidths[dy+radius] = (int) Math.sqrt((double) radius*radius-dy*dy);
+    }
+
+    // Reveals every tile within [radius] of ([col], [row]).
+    public void reveal(int col, int row) {
+        for (int dy = -radius; dy <= radius; dy++) {
+            int w = halfWidths[dy+radius];
+            int from = col-w, to = col+w, y = row+dy;
+            if (columns > 0) {
+                if (y < 0 || y >= rows) continue;
+                from = Math.max(from, 0);
+                to = Math.min(to, columns-1);
+            }
+            setRow(y, from, to);
+        }
+    }
+
+    // Whether the tile at ([col], [row]) has been seen.
+    public boolean seen(int col, int row) {
+        long[] block = block(col >> BLOCK_BITS, row >> BLOCK_BITS, false);
+        return block != null && (block[row & (BLOCK-1)] >>> (col & (BLOCK-1)) & 1) != 0;
+    }
+
+    // Which of the 64 tiles from ([col], [row]) rightwards have been seen: bit i is the tile at column [col]+i.
+    public long bits(int col, int row) {
+        int shift = col & (BLOCK-1);
+        long bits = word(col >> BLOCK_BITS, row) >>> shift;
+        if (shift != 0) bits |= word((col >> BLOCK_BITS)+1, row) << (BLOCK-shift);
+        return bits;
+    }
+
+    // Sets the bits of the tiles from [from] to [to] (inclusive) in [row], a block row at a time.
+    private void setRow(int row, int from, int to) {
+        for (int bx = from >> BLOCK_BITS; bx <= to >> BLOCK_BITS; bx++) {
+            int low = Math.max(from, bx << BLOCK_BITS) & (BLOCK-1);
+            int high = Math.min(to, (bx << BLOCK_BITS)+BLOCK-1) & (BLOCK-1);
+            long mask = (-1L >>> (BLOCK-1-high)) & (-1L << low);
+            long[] block = block(bx, row >> BLOCK_BITS, true);
+            int at = row & (BLOCK-1);
+            revealed += Long.bitCount(mask & ~block[at]);
+            block[at] |= mask;
+        }
+    }
+
+    // The bits of block column [bx] in [row], 0 if nothing there has been seen.
+    private long word(int bx, int row) {
+        long[] block = block(bx, row >> BLOCK_BITS, false);
+        return (block == null) ? 0 : block[row & (BLOCK-1)];
+    }
+
+    // Gets the block at ([bx], [by]), making it if [create]. Returns null if there is none and not [create].
+    private long[] block(int bx, int by, boolean create) {
+        long key = ((long) bx << 32) | (by & 0xFFFFFFFFL);
+        if (last != null && key == lastKey) return last;
+        long[] block = blocks.get(key);
+        if (block == null) {
+            if (!create) return null;
+            block = new long[BLOCK];
+            blocks.put(key, block);
+        }
+        lastKey = key;
+        last = block;
+        return block;
+    }
+}
@@ -0,0 +1,1180 @@
+/**
+ * 2D Grid bomb-finding game by Freeman.
+ * Recommendations:
+ *      Ideally, do not skip the tutorial.
+ *      You *can* use [DEBUG] to get rid of delays, but that detracts from the experience.
+ * 
+ * Features:
+ *      Basic tutorial
+ *      2D grid graphics with different tile types
+ *      Player can move around in the grid
+ *      BOMB explosion animation after losing, and a wave spreading out on [PING] with --ansi (see Animation)
+ *      Simple DEBUG mode (accessed by using [DEBUG] at *most* action prompts)
+ *      Random BOMB generation, reproducible with --seed
+ *      Ability to choose starting position on grid
+ *      Ability to detect distance from bomb using the [PING] action
+ *      Multiple possible actions (e.g. [YES], [Y] does the same thing)
+ *      Whitespace removal (e.g. [PING ] is treated like [PING])
+ *      Press [ENTER] while text is being typed out to skip ahead
+ *      Any board size with --board [columns]x[rows], drawn through a window that follows the player (sized with --view)
+ *      Many bombs at once with --bombs [count]; PING finds the nearest one
+ *      Open world mode with --world: an endless board made as you explore it
+ *      Leaderboard of every finished game with --leaderboard [file]
+ *      [HINT] asks a built-in solver what to do next, see Solver
+ *      Fog of war with --fog [radius]: only tiles the player has been near are shown
+ *      Practice mode with --practice: [UNDO] and [REWIND] take back any number of turns
+ *      Metrics of the game loop with -Dgame.metrics=true: histograms, counters, JFR events and JMX (see Metrics)
+ *      --fast to skip the typing and pauses without DEBUG mode, and --batch [script] to play scripted games (see Batch)
+ *      Spectators can watch a game live with --spectate [port] (see Broadcast)
+ *      Every game can be journaled with --journal [dir], and an interrupted one picked up again with --resume [file]
+ *      New kinds of tiles with --tiles [file] (see TileTypes)
+ */
+package game;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Scanner;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+public class Game {
+    private static final String END_OF_INPUT = new String(); // Compared by reference.
+    public static final int BOARD_COLUMNS = 9; // Units for possible x positions
+    public static final int BOARD_ROWS = 12; // Units for possible y positions
+    
+    public static final String TILE_FOG = "~~~"; // Not seen yet, see Fog. Tiles are drawn as their TileTypes glyph.
+    
+    public static final int STARTING_PINGS = 5;
+    public static final int VIEW_RESERVED_LINES = 6; // Screen lines kept for the status line and the prompts.
+    public static final int BOMB_MARGIN = 1; // placeBomb() never picks the last this many columns or rows. Solver relies on it.
+    public static final int WORLD_BOMB_RADIUS = 24; // In world mode, the bomb is at most this many tiles away on each axis.
+    public static final int MAX_BOARD_ATTEMPTS = 100; // Boards made before giving up on one the budget can win.
+    public static final int PARALLEL_TILES = 1 << 18; // Boards with this many tiles or more (512x512) are made in parallel stripes.
+    public static final int STRIPE_WORDS = 1 << 12; // Packed words per stripe: 131072 tiles.
+    
+    // State of this session. Every player (or connection, in server mode) gets their own Game.
+    public Board board;
+    public boolean worldMode; // Play on an endless World instead of a [columns] by [rows] grid.
+    public TileTypes types = TileTypes.DEFAULT; // Kinds of tiles boards are made of.
+    public int columns = BOARD_COLUMNS, rows = BOARD_ROWS; // Size of the grid.
+    public int screenColumns, screenRows; // Characters the terminal fits, or 0 if unknown. Limits the view.
+    public int viewLeft, viewTop, viewColumns, viewRows; // Part of the board on screen, see updateView().
+    public int[] playerPos, bombPos, actPos;
+    
+    public int direction; // 0 for right, 1 for up, 2, for left, 3 for down (► ▲ ◄ ▼)
+    public long startTime, endTime;
+    public double distanceFromBomb;
+    public int bombCount = 1; // Bombs to defuse each game.
+    public Bombs bombs; // Bombs not yet defused. bombPos is the nearest one.
+    public int movesLeft, pingsLeft;
+    public int optimalMoves; // Fewest moves that reach the bomb, from PathCost.
+
+    public long seed; // Seed of the current game. The same seed and starting position always give the same board.
+    public SplittableRandom rng; // Everything random in the current game comes from here.
+    private SplittableRandom effects = new SplittableRandom(); // Rubble of animations, split off [rng] so they never change a game.
+    private final SplittableRandom seeds; // Seeds for the games after the first.
+
+    public Path journalDir; // Where to journal games, or null to not.
+    public Journal journal;
+    public Journal.Entry resume; // Interrupted game to carry on with first, or null.
+    public Leaderboard leaderboard; // Where finished games are recorded, or null. May be shared by many sessions.
+    public boolean practiceMode; // [UNDO] and [REWIND] are allowed; games are not journaled or put on the leaderboard.
+    public History history; // Turns of the current game, in practice mode on a grid. null otherwise.
+    public int fogRadius; // Tiles this close to the player are revealed. 0 for no fog of war.
+    public Fog fog; // Tiles seen in the current game, or null with no fog of war.
+    public Solver solver; // Gives [HINT]s, following the game. null in world and many-bomb games.
+
+    public boolean debugMode;
+    public boolean pacing = true; // Type text out and pause between lines. DEBUG mode skips it as well.
+    public Scanner scan;
+    public BlockingQueue<String> lines = new LinkedBlockingQueue<>(); // Lines typed by the player, see startInput().
+    public Typewriter typewriter;
+    public Renderer renderer;
+    public Broadcast broadcast; // Spectators watching, or null.
+    private Renderer spectatorView; // Draws whole frames for [broadcast].
+    
+    public static void main(String[] args) throws IOException {
+        boolean ansi = false;
+        long seed = new SplittableRandom().nextLong();
+        Path journalDir = null;
+        Path leaderboard = null;
+        String batch = null;
+        boolean pacing = true;
+        boolean practice = false;
+        int fogRadius = 0;
+        int spectatePort = -1;
+        Journal.Entry resume = null;
+        boolean world = false;
+        TileTypes types = TileTypes.DEFAULT;
+        int bombCount = 1;
+        int[] size = {BOARD_COLUMNS, BOARD_ROWS};
+        int[] screen = {parseInt(System.getenv("COLUMNS")), parseInt(System.getenv("LINES"))}; // Set by some shells.
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--ansi")) ansi = true; // Redraw only what changed.
+            else if (args[i].equals("--seed") && i+1 < args.length) seed = Long.parseLong(args[++i]); // Replay a game.
+            else if (args[i].equals("--journal") && i+1 < args.length) journalDir = Paths.get(args[++i]);
+            else if (args[i].equals("--leaderboard") && i+1 < args.length) leaderboard = Paths.get(args[++i]);
+            else if (args[i].equals("--batch") && i+1 < args.length) batch = args[++i]; // File, or - for stdin.
+            else if (args[i].equals("--fast")) pacing = false;
+            else if (args[i].equals("--practice")) practice = true;
+            else if (args[i].equals("--fog") && i+1 < args.length) fogRadius = Math.max(1, Integer.parseInt(args[++i]));
+            else if (args[i].equals("--world")) world = true;
+            else if (args[i].equals("--tiles") && i+1 < args.length) types = TileTypes.read(Paths.get(args[++i]));
+            else if (args[i].equals("--spectate")) { // [port], optional
+                spectatePort = (i+1 < args.length && parseInt(args[i+1]) > 0) ? parseInt(args[++i]) : Broadcast.DEFAULT_PORT;
+            }
+            else if (args[i].equals("--bombs") && i+1 < args.length) bombCount = Math.max(1, Integer.parseInt(args[++i]));
+            else if (args[i].equals("--board") && i+1 < args.length) {
+                size = parseSize(args[++i]);
+                if (size[0] < 3 || size[1] < 3) throw new IllegalArgumentException("The board must be at least 3x3"); // See placeBomb().
+            }
+            else if (args[i].equals("--view") && i+1 < args.length) screen = parseSize(args[++i]); // Terminal size.
+            else if (args[i].equals("--resume") && i+1 < args.length) {
+                resume = Journal.read(Paths.get(args[++i]));
+                if (resume.result != -1 || resume.columns <= 0 || resume.rows <= 0) {
+                    System.out.println("That game can't be resumed: it is already finished.");
+                    return;
+                }
+                seed = resume.seed;
+                size = new int[]{resume.columns, resume.rows};
+            }
+            else if (args[i].equals("--server")) { // Serve games over telnet instead, see Server.
+                Server.main(Arrays.copyOfRange(args, i+1, args.length)); // [port] [leaderboard file]
+                return;
+            }
+        }
+        if (batch != null) {
+            try (InputStream in = (batch.equals("-")) ? System.in : Files.newInputStream(Paths.get(batch))) {
+                Batch.run(in, System.out, seed, size[0], size[1]);
+            }
+            return;
+        }
+        Game game = new Game(System.in, System.out, Charset.defaultCharset(), ansi, seed);
+        game.pacing = pacing;
+        game.practiceMode = practice;
+        game.fogRadius = fogRadius;
+        game.journalDir = journalDir;
+        game.resume = resume;
+        game.worldMode = world && resume == null;
+        game.types = (resume == null) ? types : TileTypes.DEFAULT;
+        game.bombCount = (resume == null) ? bombCount : 1;
+        game.columns = size[0];
+        game.rows = size[1];
+        game.screenColumns = screen[0];
+        game.screenRows = screen[1];
+        if (spectatePort >= 0) {
+            game.broadcast = new Broadcast(spectatePort);
+            System.out.printf("Spectators can watch with: telnet localhost %d%n", game.broadcast.port());
+            game.typewriter.mirror(game.broadcast::text); // Spectators get the text as it is typed out.
+        }
+        try {
+            if (leaderboard == null) {
+                game.play();
+                return;
+            }
+            try (Leaderboard board = Leaderboard.open(leaderboard)) {
+                game.leaderboard = board;
+                game.play();
+            }
+        } finally {
+            if (game.broadcast != null) game.broadcast.close();
+        }
+    }
+
+    // Parses "[columns]x[rows]", like 80x24.
+    private static int[] parseSize(String size) {
+        String[] parts = size.toLowerCase().split("x");
+        if (parts.length != 2 || parseInt(parts[0]) <= 0 || parseInt(parts[1]) <= 0) throw new IllegalArgumentException("Expected [columns]x[rows], got " + size);
+        return new int[]{parseInt(parts[0]), parseInt(parts[1])};
+    }
+
+    // Parses [text] as a number. Returns 0 if it is null or not a number.
+    private static int parseInt(String text) {
+        int number = LineReader.parseInt(text);
+        return (number == LineReader.NOT_A_NUMBER) ? 0 : number;
+    }
+
+    // Makes a session that reads the player's input from [in] and writes everything to [out], with a random seed.
+    public Game(InputStream in, OutputStream out, Charset charset, boolean ansi) {
+        this(in, out, charset, ansi, new SplittableRandom().nextLong());
+    }
+
+    // Makes a session like above whose first game uses [seed]. Later games get seeds derived from it.
+    public Game(InputStream in, OutputStream out, Charset charset, boolean ansi, long seed) {
+        this.seed = seed;
+        seeds = new SplittableRandom(seed);
+        scan = new Scanner(in, charset);
+        typewriter = new Typewriter(out, charset);
+        renderer = new Renderer(typewriter.stream(), charset, ansi);
+    }
+
+    // Plays the whole session: the tutorial, then games until the player stops.
+    public void play() {
+        debugMode = false;
+        startInput();
+        try {
+            playTutorial();
+            do {
+                playIntro();
+                game();
+            } while (playAgain());
+            println("Game has finished.");
+        } finally {
+            closeJournal(); // Keeps whatever was played if the session ended mid-game.
+            closeWorld();
+            typewriter.close(); // Let the typing finish before the session ends.
+        }
+    }
+
+    // Main game.
+    public void game() {
+        playerPos = new int[2];
+        bombPos = new int[2];
+        actPos = new int[2];
+        
+        direction = 0; // Start facing left.
+        movesLeft = startingMoves(columns, rows);
+        pingsLeft = STARTING_PINGS;
+        // ---------------------------------------------------------------
+        // Game initialization.
+        if (worldMode) {
+            println("<------------------POINT INSERTION------------------>");
+            println("There are no edges down here. You start at (0, 0); the BOMB is somewhere nearby...", 500);
+        }
+        else if (resume != null) {
+            println("<------------------POINT REINSERTION---------------->");
+            seed = resume.seed;
+            playerPos = resume.start.clone();
+        }
+        else {
+            println("<------------------POINT INSERTION------------------>");
+            print("You can choose where you want to begin your search");
+            println("...", 500);
+            playerPos = getInitialPos();
+        }
+        rng = new SplittableRandom(seed);
+        bombs = new Bombs();
+        if (worldMode) {
+            World world = createWorld(types, playerPos, bombPos, rng);
+            board = world;
+            movesLeft = worldMoves(types, playerPos, bombPos);
+            optimalMoves = worldOptimalMoves(world, playerPos, bombPos, movesLeft);
+            bombs.add(bombPos[0], bombPos[1]);
+            placeBombs(board, bombs, bombCount, playerPos[0]-WORLD_BOMB_RADIUS, playerPos[1]-WORLD_BOMB_RADIUS,
+                2*WORLD_BOMB_RADIUS+1, 2*WORLD_BOMB_RADIUS+1, playerPos, rng);
+            movesLeft += (bombs.size()-1)*2*WORLD_BOMB_RADIUS;
+        }
+        else {
+            board = createWinnableBoard(types, columns, rows, playerPos, bombPos, movesLeft, rng);
+            optimalMoves = PathCost.minMoves((TileGrid) board, playerPos, bombPos);
+            bombs.add(bombPos[0], bombPos[1]);
+            placeBombs(board, bombs, bombCount, 0, 0, columns, rows, playerPos, rng);
+            movesLeft += (bombs.size()-1)*(columns+rows); // A walk across the board for every extra bomb.
+            // World and many-bomb games are not journaled; replays only know how to make a TileGrid with one bomb,
+            // of the DEFAULT types. Practice games neither, since a journal can't take actions back.
+            if (bombCount == 1 && !practiceMode && types == TileTypes.DEFAULT) openJournal();
+            if (practiceMode) board = new PersistentGrid((TileGrid) board);
+        }
+        history = (board instanceof PersistentGrid) ? new History() : null;
+        fog = (fogRadius <= 0) ? null : (worldMode) ? new Fog(fogRadius) : new Fog(fogRadius, columns, rows);
+        renderer.fog = fog;
+        reveal();
+        // Only after MAX_BOARD_ATTEMPTS unwinnable boards in a row. With walls, the bomb may not be reachable at all.
+        if (optimalMoves != PathCost.UNREACHABLE) movesLeft = Math.max(movesLeft, optimalMoves);
+        effects = rng.split();
+        boolean midGame = resume != null && resume.actions.length > 0;
+        if (resume != null) {
+            catchUp(resume.actions);
+            println(String.format("Picked up where you left off, %d actions in.", resume.actions.length));
+            resume = null;
+        }
+        solver = (worldMode || bombCount > 1) ? null : new Solver(board, columns, rows, playerPos, midGame);
+        println("Starting game...");
+        startTime = System.currentTimeMillis();
+        if (Metrics.ENABLED) Metrics.GAMES.increment();
+        int turn = 0;
+        // ---------------------------------------------------------------
+        // Gameplay loop.
+        while (!bombFound() && movesLeft > 0) {
+            if (history != null) history.push((PersistentGrid) board, playerPos, direction, movesLeft, pingsLeft);
+            TurnEvent event = null;
+            if (Metrics.ENABLED) {
+                event = new TurnEvent();
+                event.begin();
+            }
+            newFrame();
+            bombPos = bombs.nearest(playerPos[0], playerPos[1]);
+            distanceFromBomb = Math.hypot(bombPos[0]-playerPos[0], bombPos[1]-playerPos[1]);
+            renderer.text(String.format("Current Pos: (%d, %d)", playerPos[0], playerPos[1]));
+            renderer.text(String.format("\t\tMoves left: %d" + ((movesLeft <= 5) ? " /!\\" : ""), movesLeft));
+            renderer.text((bombCount > 1) ? String.format("\t\tBombs left: %d%n", bombs.size()) : "\n");
+            
+            if (debugMode) { // Part of the frame, since DEBUG mode has no delays anyway.
+                renderer.text(String.format("Distance: %.2f%n%n", distanceFromBomb));
+                renderer.text("bombPos: " + Arrays.toString(bombPos) + "\n");
+                renderer.text("playerPos:" + Arrays.toString(playerPos) + "\n");
+                renderer.text("actPos: " + Arrays.toString(actPos) + "\n");
+                renderer.text("seed: " + seed + "\n");
+                renderer.text("optimalMoves: " + optimalMoves + "\n");
+            }
+
+            renderBoard();
+            actPos = getAction();
+            if (actPos == null) continue; // Went back in time; show that turn.
+            record(direction);
+            boolean hit = Metrics.ENABLED && !board.canEnter(actPos[0], actPos[1]);
+            doAction();
+            defuse();
+            movesLeft--;
+            if (Metrics.ENABLED) {
+                Metrics.TURNS.increment();
+                (hit ? Metrics.HITS : Metrics.MOVES).increment();
+                if (event.shouldCommit()) {
+                    event.seed = seed;
+                    event.turn = ++turn;
+                    event.action = (hit) ? "HIT" : "MOVE";
+                    event.direction = direction;
+                    event.movesLeft = movesLeft;
+                    event.pingsLeft = pingsLeft;
+                    event.commit();
+                }
+            }
+        }
+        if (journal != null) journal.finish((bombFound()) ? Journal.WON : Journal.LOST);
+        closeJournal();
+        // ---------------------------------------------------------------
+        // End screen.
+        clearScreen();
+        renderer.fog = null; // Show the whole board.
+        renderBoard();
+        endTime = System.currentTimeMillis();
+        if (bombFound()) { // player found bomb victory
+            println("After hours and hours of searching...");
+            delay(1000);
+            println((bombCount > 1) ? "You have found every bomb, and defused them all." : "You have found the bomb, and defused it successfully.");
+            delay(1000);
+            println("You, who have risked your life for others...");
+            delay(1000);
+            println("Shall be forever remembered in history.");
+        }
+        else { // player failed to find bomb
+            println("Oh man, this isn't good...");
+            delay(1000);
+            for (int i = 5; i > 0; i--) {
+                println(String.format("%d SECOND" + ((i == 1) ? "" : "S") + " UNTIL DETONATION.", i));
+                delay(1000);
+            }
+            println("B O O M", 500);
+            if (pacing && !debugMode) destroyBoard(500); // Nobody would see it without the pauses.
+            println("...", 1000);
+            println("Y-u sti-l t--re?");
+            delay(1000);
+            println("It see-s l-ke you w-re too la-e, -e ca- f--l it ha-pen--g...");
+            delay(1000);
+            println("T-e exp--si-n... it's go--g -- b- a di-a-ter...");
+            delay(2000);
+            println("---------------------------------------------------------");
+            println("Don't worry...");
+            delay(1000);
+            println("Being there in the first place makes you a hero enough.");
+            delay(1000);
+            println("But it's not like heroes always win, right?");
+            delay(1000);
+            println("Yet many still look up to them; a beacon of hope.");
+            delay(3000);
+            println("This isn't the end.");
+            if (rng.nextInt(5) == 0) {
+                println("By the way, [DEBUG] is a valid action... try it sometime!");
+                delay(1000);
+            }
+            println("...", 1000);
+        }
+        println("", 0);
+        delay(2000);
+        showStats(startTime, endTime, movesLeft);
+        delay(2000);
+        closeWorld();
+        seed = seeds.nextLong();
+    }
+
+    // Starts journaling this game, unless it is being resumed (then its journal is added to) or journaling is off.
+    // [movesLeft] must still be the budget the board was made for, so a replay makes the same board.
+    public void openJournal() {
+        try {
+            if (resume != null) journal = Journal.append(resume);
+            else if (journalDir != null) journal = Journal.create(journalDir, seed, columns, rows, movesLeft, pingsLeft, playerPos);
+        } catch (IOException e) {
+            println("Could not start the journal, this game won't be recorded: " + e.getMessage());
+        }
+    }
+
+    // Adds [action] to the journal, if there is one.
+    public void record(int action) {
+        if (journal != null) journal.record(action);
+    }
+
+    // Throws away the World of the last game and its spilled chunks, if it was one.
+    public void closeWorld() {
+        if (!(board instanceof World world)) return;
+        try {
+            world.close();
+        } catch (IOException e) {
+            println("Could not clean up the world: " + e.getMessage());
+        }
+    }
+
+    public void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            println("The journal could not be saved: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    // Replays [actions] from a journal onto the current game, silently.
+    public void catchUp(byte[] actions) {
+        for (byte action : actions) {
+            if (action == Journal.PING) {
+                pingsLeft--;
+                continue;
+            }
+            direction = action;
+            actPos = getTarget(playerPos, direction, board);
+            if (actPos == null) continue;
+            doAction(board, playerPos, actPos, bombs);
+            reveal();
+            defuse();
+            movesLeft--;
+        }
+        actPos = new int[2];
+    }
+
+    // Gets user's starting position. Returns the resulting position.
+    public int[] getInitialPos() {
+        int playerX, playerY;
+        // Get initial player X position.
+        println(String.format("On what COLUMN (x) do you want to begin on? [0 to %d]", columns-1));
+        while (true) {
+            print(">>> ", 0);
+            playerX = LineReader.parseInt(nextLine());
+            if (playerX == LineReader.NOT_A_NUMBER) {
+                println("Something went wrong...");
+                println("Please enter an Integer.");
+                continue;
+            }
+            if (playerX < 0) {
+                println("Defaulted to 0.");
+                playerX = 0;
+            }
+            else if (playerX > columns-1) {
+                println(String.format("Defaulted to %d.", columns-1));
+                playerX = columns-1;
+            }
+            break; // X pos obtained, exit while loop.
+        }
+        // Get initial player Y position.
+        println(String.format("On what ROW (y) do you want to begin on? [0 to %d]", rows-1));
+        while (true) {
+            print(">>> ", 0);
+            playerY = LineReader.parseInt(nextLine());
+            if (playerY == LineReader.NOT_A_NUMBER) {
+                println("Something went wrong...");
+                println("Please enter an Integer.");
+                continue;
+            }
+            if (playerY < 0) {
+                println("Defaulted to 0.");
+                playerY = 0;
+            }
+            else if (playerY > rows-1) {
+                println(String.format("Defaulted to %d.", rows-1));
+                playerY = rows-1;
+            }
+            break; // Y pos obtained, exit while loop.
+        }
+        return new int[]{playerX, playerY};
+    }
+    
+    // Runs the tutorial.
+    public void playTutorial() {
+        println("/!\\ Warning: Tutorial only runs once per run. /!\\");
+        println("Skip tutorial? [Y/N]");
+        print(">>> ", 0);
+        try {
+            switch (Commands.parse(nextLine())) {
+                case (Commands.YES):
+                case (Commands.SKIP):
+                    println("Skipped.\n\n\n");
+                    return;
+                case (Commands.NO):
+                    break;
+                case (Commands.DEBUG):
+                    debugMode = true;
+                    println("DEBUG mode enabled, skipping TUTORIAL.\n\n\n");
+                    return;
+                default:
+                    println("Seems like a NO to me.\n\n\n");
+            }
+        } catch (Exception e) { // Empty string, continue INTRO
+            println("Seems like a NO to me.\n\n\n");
+        }
+        println("This game is a 2D-grid exploration game.");
+        delay(1000);
+        println("There will be a BOMB within the grid. Your OBJECTIVE is to find it.");
+        delay(1000);
+        println("Your character will be indicated by an arrow character (e.g. ►).");
+        delay(1000);
+        println("Within the grid, there will be three main tile types:");
+        delay(500);
+        println("    STRONG (___): Requires two moves to break. Becomes WEAK when hit.");
+        delay(500);
+        println("    WEAK   (...): Requires one move to break. Becomes EMPTY when broken.");
+        delay(500);
+        println("    EMPTY  (   ): Can be moved into.");
+        delay(1000);
+        println("When the tile containing the BOMB is broken, it becomes exposed ( @ ).");
+        delay(1000);
+        println("Move into the BOMB to defuse it and win the game.");
+        delay(1000);
+        println("Above the grid, there will be a counter showing your current moves left.");
+        delay(1000);
+        println("If that counter reaches 0, and you haven't found the bomb, you lose.");
+        delay(1000);
+        println("You can use the action [PING] to get the your current distance from the BOMB.");
+        delay(1000);
+        println("Be careful, though, as PINGs are limited.");
+        delay(1000);
+        println("You begin with 5 PINGs and cannot gain more in one game session.");
+        delay(1000);
+        println("Good luck, and have fun playing this game!\n\n\n");
+    }
+    
+    // Game introduction.
+    public void playIntro() {
+        if (debugMode) {
+            println("DEBUG mode is currrently enabled, skipping INTRO.\n\n\n");
+            return;
+        }
+        clearScreen();
+        println("Skip introduction? [Y/N]");
+        print(">>> ", 0);
+        try {
+            switch (Commands.parse(nextLine())) {
+                case (Commands.YES):
+                case (Commands.SKIP):
+                    println("Skipped.\n\n\n");
+                    return; // Instantly end INTRO
+                case (Commands.NO):
+                    break;
+                case (Commands.DEBUG):
+                    debugMode = true;
+                    println("DEBUG mode enabled, skipping INTRO.\n\n\n");
+                    return; // Enable DEBUG mode and end INTRO
+                default:
+                    println("Seems like a NO to me.");
+            }
+        } catch (Exception e) { // Empty string, continue INTRO
+            println("Seems like a NO to me.");
+        }
+        println("Starting...\n\n\n", 100);
+        println("Something's happening.");
+        delay(1000);
+        println("People are panicking, and screams echo through the air.");
+        delay(1000);
+        println("What the heck is going on???");
+        delay(1000);
+        println("It seems that someone planted a BOMB underground...");
+        delay(1000);
+        println("A BOMB so powerful, it will blow up the entire CITY!");
+        delay(1000);
+        println("Fortunately, a response team was quickly formed to find the BOMB...");
+        delay(1000);
+        println("And YOU were selected as the most capable person to go underground.");
+        delay(1000);
+        println("Good luck, go find that BOMB and save everyone!");
+        delay(1000);
+        println("\n\n\n\n\n");
+    }
+
+    // Check if every bomb is found (the player has stood on its tile). Returns true if yes, false if no.
+    public boolean bombFound() {
+        return bombs.size() == 0;
+    }
+
+    // Defuses the bomb the player is standing on, if there is one.
+    public void defuse() {
+        if (!bombs.remove(playerPos[0], playerPos[1])) return;
+        if (history != null) history.defused(playerPos[0], playerPos[1]);
+        board.set(playerPos[0], playerPos[1], TileGrid.EMPTY);
+        if (bombs.size() > 0) println(String.format("BOMB defused! %d to go.", bombs.size()));
+    }
+
+    // Shows time taken and moves left.
+    public void showStats(long startTime, long endTime, int movesLeft) {
+        println(String.format("Time taken: %.2f seconds.", (endTime-startTime)/1000d));
+        delay(2000);
+        if (bombFound()) println(String.format("Moves left: %d.", movesLeft));
+        else println("BOMB has exploded...");
+        if (bombCount > 1) println(String.format("Bombs defused: %d of %d.", bombCount-bombs.size(), bombCount));
+        else println(String.format("Fewest moves possible: %d.", optimalMoves));
+        println(String.format("Seed: %d (play this board again with --seed %d).", seed, seed));
+        if (leaderboard != null && !practiceMode) recordGame((int) (endTime-startTime), movesLeft);
+        println("", 0);
+    }
+
+    // Adds the finished game to the leaderboard, then shows where it ranks.
+    public void recordGame(int millis, int movesLeft) {
+        int columns = (worldMode) ? 0 : this.columns, rows = (worldMode) ? 0 : this.rows; // World games rank together as 0x0.
+        Leaderboard.Record record = new Leaderboard.Record(System.currentTimeMillis(), seed, millis, columns, rows,
+            movesLeft, STARTING_PINGS-pingsLeft, bombCount, bombFound());
+        try {
+            leaderboard.append(record);
+        } catch (IOException e) {
+            println("Could not save this game to the leaderboard: " + e.getMessage());
+            return;
+        }
+        int rank = (record.won) ? leaderboard.rank(columns, rows, millis, record.id) : -1;
+        if (rank > 0) println(String.format("Leaderboard: #%d fastest win on this board!", rank));
+        println(String.format("Median time of the last 100 games: %.2f seconds.", leaderboard.percentileMillis(50, 100)/1000d));
+    }
+
+    // Makes an endless world for a game starting at [player], its seed taken from [rng]. Places the bomb into [bomb]
+    // within WORLD_BOMB_RADIUS of the player. Returns the world.
+    public static World createWorld(int[] player, int[] bomb, RandomGenerator rng) {
+        return createWorld(TileTypes.DEFAULT, player, bomb, rng);
+    }
+
+    // Same as above, made of [types].
+    public static World createWorld(TileTypes types, int[] player, int[] bomb, RandomGenerator rng) {
+        World world = new World(types, rng.nextLong(), World.DEFAULT_CACHED_CHUNKS, null);
+        do {
+            bomb[0] = player[0]+rng.nextInt(-WORLD_BOMB_RADIUS, WORLD_BOMB_RADIUS+1);
+            bomb[1] = player[1]+rng.nextInt(-WORLD_BOMB_RADIUS, WORLD_BOMB_RADIUS+1);
+        } while (Arrays.equals(player, bomb));
+        world.set(player[0], player[1], TileGrid.EMPTY);
+        world.set(bomb[0], bomb[1], TileGrid.STRONG); // Same as the bomb tile of createBoard().
+        return world;
+    }
+
+    // Moves given for a world game. Walking straight at the bomb never costs more than 3 per tile, so it is always winnable.
+    public static int worldMoves(int[] player, int[] bomb) {
+        return worldMoves(TileTypes.DEFAULT, player, bomb);
+    }
+
+    // Same as above, for a world of [types]: the most any tile but a wall costs, per tile.
+    public static int worldMoves(TileTypes types, int[] player, int[] bomb) {
+        return types.maxCost*(Math.abs(bomb[0]-player[0])+Math.abs(bomb[1]-player[1]));
+    }
+
+    // Fewest moves from [player] to [bomb] in [world]. A path costing at most [moves] can't stray further than
+    // (moves-distance)/2 tiles outside the box around both, so searching a copy of that area gives the exact answer.
+    public static int worldOptimalMoves(World world, int[] player, int[] bomb, int moves) {
+        int margin = (moves-Math.abs(bomb[0]-player[0])-Math.abs(bomb[1]-player[1]))/2;
+        int left = Math.min(player[0], bomb[0])-margin, top = Math.min(player[1], bomb[1])-margin;
+        TileGrid area = world.copy(left, top, Math.abs(bomb[0]-player[0])+2*margin+1, Math.abs(bomb[1]-player[1])+2*margin+1);
+        return PathCost.minMoves(area, new int[]{player[0]-left, player[1]-top}, new int[]{bomb[0]-left, bomb[1]-top});
+    }
+
+    // Adds bombs to [bombs] until it holds [count], on random tiles of the [columns] by [rows] area from ([left], [top]),
+    // never on [player]. Their tiles become STRONG, like the first bomb's. Stops early if the area is too small.
+    public static void placeBombs(Board board, Bombs bombs, int count, int left, int top, int columns, int rows, int[] player, RandomGenerator rng) {
+        count = (int) Math.min(count, (long) columns*rows-1);
+        while (bombs.size() < count) {
+            int col = left+rng.nextInt(columns), row = top+rng.nextInt(rows);
+            if ((col == player[0] && row == player[1]) || !bombs.add(col, row)) continue;
+            board.set(col, row, TileGrid.STRONG);
+        }
+    }
+
+    // SplitMix64's finalizer. Turns neighbouring numbers into unrelated seeds.
+    public static long mixSeed(long z) {
+        z = (z ^ (z >>> 30))*0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27))*0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Generates the game board using [rng] for every tile, 1 in 3 each of STRONG, WEAK and EMPTY. Returns the resulting board.
+    public static TileGrid createBoard(int columns, int rows, int[] player, int[] bomb, RandomGenerator rng) {
+        return createBoard(TileTypes.DEFAULT, columns, rows, player, bomb, rng, ForkJoinPool.commonPool());
+    }
+
+    // Same as above, filling boards of PARALLEL_TILES or more in stripes on [pool]. They come out the same on any number of threads.
+    public static TileGrid createBoard(int columns, int rows, int[] player, int[] bomb, RandomGenerator rng, ForkJoinPool pool) {
+        return createBoard(TileTypes.DEFAULT, columns, rows, player, bomb, rng, pool);
+    }
+
+    // Same as above, with tiles of [types] picked by their weights.
+    public static TileGrid createBoard(TileTypes types, int columns, int rows, int[] player, int[] bomb, RandomGenerator rng, ForkJoinPool pool) {
+        TileGrid board = new TileGrid(types, columns, rows);
+        if ((long) columns*rows < PARALLEL_TILES) {
+            // One stream for the whole board, in reading order. The player's tile takes no number from it.
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < columns; col++) {
+                    if (col != player[0] || row != player[1]) board.set(col, row, types.randomTile(rng));
+                }
+            }
+        }
+        else pool.invoke(new FillStripes(board, rng.nextLong(), 0, (board.words()+STRIPE_WORDS-1)/STRIPE_WORDS));
+        board.set(player[0], player[1], TileGrid.EMPTY); // The player starts on an EMPTY tile,
+        board.set(bomb[0], bomb[1], TileGrid.STRONG); // and the bomb is always under a STRONG one.
+        return board;
+    }
+
+    // Fills stripes [from] to [to] (exclusive) of a board with random tiles, splitting them between threads.
+    // Stripe i is STRIPE_WORDS packed words (the last may be shorter) from its own stream, seeded from [seed] and i.
+    private static class FillStripes extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final TileGrid board;
+        private final long seed;
+        private final int from, to;
+
+        FillStripes(TileGrid board, long seed, int from, int to) {
+            this.board = board;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to-from > 1) {
+                int middle = (from+to) >>> 1;
+                invokeAll(new FillStripes(board, seed, from, middle), new FillStripes(board, seed, middle, to));
+                return;
+            }
+            SplittableRandom rng = new SplittableRandom(mixSeed(seed^mixSeed(from)));
+            long tiles = (long) board.columns*board.rows;
+            int end = Math.min(board.words(), (from+1)*STRIPE_WORDS);
+            for (int word = from*STRIPE_WORDS; word < end; word++) {
+                int count = (int) Math.min(board.tilesPerWord, tiles-(long) word*board.tilesPerWord);
+                long bits = 0, random = 0;
+                for (int i = 0; i < count; i++) {
+                    if ((i & 1) == 0) random = rng.nextLong();
+                    bits |= (long) board.types.randomTile(random >>> ((i & 1) << 5)) << (i*board.bits); // 32 bits each.
+                }
+                board.setWord(word, bits);
+            }
+        }
+    }
+
+    // Places the bomb into [bomb] and generates the board with [rng], trying again while the bomb can't be reached
+    // in [moves] moves, up to MAX_BOARD_ATTEMPTS times. Returns the board.
+    public static TileGrid createWinnableBoard(int columns, int rows, int[] player, int[] bomb, int moves, RandomGenerator rng) {
+        return createWinnableBoard(TileTypes.DEFAULT, columns, rows, player, bomb, moves, rng);
+    }
+
+    // Same as above, made of [types].
+    public static TileGrid createWinnableBoard(TileTypes types, int columns, int rows, int[] player, int[] bomb, int moves, RandomGenerator rng) {
+        TileGrid board;
+        int attempts = 0;
+        do {
+            int[] placed = placeBomb(columns, rows, player, rng);
+            bomb[0] = placed[0];
+            bomb[1] = placed[1];
+            board = createBoard(types, columns, rows, player, bomb, rng, ForkJoinPool.commonPool());
+        } while (PathCost.minMoves(board, player, bomb) > moves && ++attempts < MAX_BOARD_ATTEMPTS);
+        return board;
+    }
+
+    // Picks a bomb position on a [columns] by [rows] board that is not the player's position, and not in the last
+    // BOMB_MARGIN columns or rows. Returns the position.
+    public static int[] placeBomb(int columns, int rows, int[] player, RandomGenerator rng) {
+        int[] bomb = new int[2];
+        do {
+            bomb[0] = (int) (rng.nextDouble()*(columns-BOMB_MARGIN));
+            bomb[1] = (int) (rng.nextDouble()*(rows-BOMB_MARGIN));
+        } while (Arrays.equals(player, bomb)); // Prevent bomb and player start at same position.
+        return bomb;
+    }
+
+    // Moves given at the start of a game on a [columns] by [rows] board.
+    public static int startingMoves(int columns, int rows) {
+        return (columns*rows)/3;
+    }
+
+    // Outputs the current board on the screen.
+    public void renderBoard() {
+        long start = (Metrics.ENABLED) ? System.nanoTime() : 0;
+        updateView();
+        renderer.board(board, viewLeft, viewTop, viewColumns, viewRows, playerPos, direction);
+        renderer.flush();
+        spectate();
+        if (Metrics.ENABLED) {
+            Metrics.RENDER.record(System.nanoTime()-start);
+            Metrics.FRAMES.increment();
+        }
+    }
+
+    // Publishes the board on screen to the spectators as a whole frame, drawn over their last one.
+    // Drawn apart from the player's, which in ANSI mode only has what changed. Drawn now, but published by the typewriter
+    // once everything before it is written, so spectators see each frame when the player does.
+    private void spectate() {
+        if (broadcast == null) return;
+        if (spectatorView == null) spectatorView = new Renderer(broadcast.frames(typewriter::run), StandardCharsets.UTF_8, false);
+        spectatorView.fog = renderer.fog;
+        spectatorView.animation = renderer.animation;
+        spectatorView.text("\033[H\033[2J");
+        spectatorView.board(board, viewLeft, viewTop, viewColumns, viewRows, playerPos, direction);
+        spectatorView.flush();
+    }
+
+    // Picks the part of the board to show: a window centred on the player, as big as the screen fits
+    // (BOARD_COLUMNS by BOARD_ROWS if the screen size is unknown), kept inside the edges of a grid.
+    public void updateView() {
+        viewColumns = (screenColumns > 0) ? Renderer.columnsThatFit(screenColumns) : BOARD_COLUMNS;
+        viewRows = (screenRows > 0) ? Renderer.rowsThatFit(screenRows-VIEW_RESERVED_LINES) : BOARD_ROWS;
+        viewLeft = playerPos[0]-viewColumns/2;
+        viewTop = playerPos[1]-viewRows/2;
+        if (!worldMode) {
+            viewColumns = Math.min(viewColumns, columns);
+            viewRows = Math.min(viewRows, rows);
+            viewLeft = Math.max(0, Math.min(viewLeft, columns-viewColumns));
+            viewTop = Math.max(0, Math.min(viewTop, rows-viewRows));
+        }
+    }
+    
+    // Animation of the bomb destroying the board, from top row to bottom row. Each row takes [msPerRow] milliseconds.
+    public void destroyBoard(int msPerRow) {
+        animate(Animation.explosion(msPerRow));
+    }
+
+    // Plays [effect] over the board on screen, a frame every Animation.FRAME_MS. In ANSI mode, a frame only writes the cells it changed.
+    // Otherwise the whole board is drawn again, so only once per step of the effect.
+    // What the last frame drew stays on screen until the board is drawn again.
+    public void animate(Animation.Effect effect) {
+        updateView();
+        Animation animation = new Animation(viewLeft, viewTop, viewColumns, viewRows, effects);
+        renderer.animation = animation;
+        boolean more;
+        int frame = 0;
+        do {
+            more = effect.frame(animation, frame++);
+            if (renderer.cells(board, playerPos, direction)) {
+                renderer.flush();
+                spectate();
+                if (Metrics.ENABLED) Metrics.FRAMES.increment();
+            }
+            else if (frame % effect.step() == 0 || !more) { // [frame] frames are done: the last of a step.
+                newFrame();
+                renderBoard();
+            }
+            animation.drawn();
+            if (pacing && !debugMode) typewriter.frame(Animation.FRAME_MS);
+        } while (more);
+        renderer.animation = null;
+    }
+    
+    // Get and execute an valid action from the user. Returns the tile the player wants to act on in 0th and 1st index.
+    // Also returns the remaining pings left in the 2nd index of the array, since I can't return two different things.
+    // Returns null if the player went back to an earlier turn instead.
+    public int[] getAction() {
+        int[] target;
+        println((history != null) ? "Do something. [{MOVEMENT}, HELP, PING, UNDO, REWIND]" : "Do something. [{MOVEMENT}, HELP, PING]", 0);
+        do {
+            print(">>> ", 0);
+            switch(Commands.parse(nextLine())) {
+                case (Commands.NORTH):
+                    target = getTarget(playerPos, 1, board);
+                    if (target == null) {
+                        println("Can't move up anymore...");
+                        if (Metrics.ENABLED) Metrics.REJECTED.increment();
+                        break;
+                    }
+                    direction = 1;
+                    return target;
+                case (Commands.SOUTH):
+                    target = getTarget(playerPos, 3, board);
+                    if (target == null) {
+                        println("Can't move DOWN anymore...");
+                        if (Metrics.ENABLED) Metrics.REJECTED.increment();
+                        break;
+                    }
+                    direction = 3;
+                    return target;
+                case (Commands.WEST):
+                    target = getTarget(playerPos, 2, board);
+                    if (target == null) {
+                        println("Can't move RIGHT anymore...");
+                        if (Metrics.ENABLED) Metrics.REJECTED.increment();
+                        break;
+                    }
+                    direction = 2;
+                    return target;
+                case (Commands.EAST):
+                    target = getTarget(playerPos, 0, board);
+                    if (target == null) {
+                        println("Can't move RIGHT anymore...");
+                        if (Metrics.ENABLED) Metrics.REJECTED.increment();
+                        break;
+                    }
+                    direction = 0;
+                    return target;
+                case (Commands.PING):
+                    if (pingsLeft <=0) {
+                        println("Out of PINGS.");
+                        break;
+                    }
+                    println(String.format("%d PINGs left.", --pingsLeft));
+                    record(Journal.PING);
+                    if (Metrics.ENABLED) Metrics.PINGS.increment();
+                    if (solver != null) solver.ping(playerPos, distanceFromBomb);
+                    for (int i = 0; i < 3; i++) {
+                        println("PINGing...", 100);
+                        delay(500);
+                    }
+                    if (renderer.ansi && pacing && !debugMode) animate(Animation.pingWave(playerPos[0], playerPos[1], distanceFromBomb));
+                    println(String.format("PING success. The %s is %.2f units away. What now?", (bombCount > 1) ? "nearest bomb" : "bomb", distanceFromBomb));
+                    break;
+                case (Commands.HELP):
+                    println("{MOVEMENT}: Controls your character's position.");
+                    println("\t[UP, NORTH, W]: Moves player UP.");
+                    println("\t[DOWN, SOUTH, S]: Moves player DOWN.");
+                    println("\t[LEFT, WEST, A]: Moves player LEFT.");
+                    println("\t[RIGHT, EAST, D]: Moves player RIGHT.");
+                    println("[PING]: Gets the current distance from bomb.");
+                    println(String.format("\tCurrent PINGs left: %d.", pingsLeft));
+                    println("[HINT, H]: Asks what to do next.");
+                    if (history != null) {
+                        println("[UNDO, U]: Takes back the last turn.");
+                        println("[REWIND]: Goes back any number of turns.");
+                    }
+                    println("Your OBJECTIVE is to find the bomb before you run out of moves.");
+                    break;
+                case (Commands.HINT):
+                    hint();
+                    break;
+                case (Commands.UNDO):
+                    if (rewind(1)) return null;
+                    break;
+                case (Commands.REWIND):
+                    if (history == null || history.size() < 2) {
+                        rewind(1); // Says why not.
+                        break;
+                    }
+                    println(String.format("How many turns back? [1 to %d]", history.size()-1));
+                    print(">>> ", 0);
+                    if (rewind(LineReader.parseInt(nextLine()))) return null;
+                    break;
+                case (Commands.DEBUG):
+                    debugMode = !debugMode;
+                    println(String.format("DEBUG mode %s.", (debugMode) ? "enabled" : "disabled"));
+                    break;
+                default:
+                    println("Unrecognized action... Try HELP for a list of actions.");
+            }
+        } while (true);
+    }
+
+    // Goes back [turns] turns in practice mode, PINGs included. Returns false, saying why, if that isn't possible.
+    public boolean rewind(int turns) {
+        if (history == null) {
+            println((practiceMode) ? "There is no going back in world mode." : "Taking turns back only works in practice mode (--practice).");
+            return false;
+        }
+        if (history.size() < 2) {
+            println("Nothing to take back yet.");
+            return false;
+        }
+        if (turns < 1 || turns > history.size()-1) {
+            println((history.size() == 2) ? "Can only go back 1 turn." : String.format("Can only go back 1 to %d turns.", history.size()-1));
+            return false;
+        }
+        History.Turn turn = history.rewind(turns, (PersistentGrid) board, bombs);
+        System.arraycopy(turn.playerPos, 0, playerPos, 0, 2);
+        direction = turn.direction;
+        movesLeft = turn.movesLeft;
+        pingsLeft = turn.pingsLeft;
+        if (solver != null) solver = new Solver(board, columns, rows, playerPos, true); // Forgets the PINGs made so far.
+        println(String.format("Went back %d turn%s.", turns, (turns == 1) ? "" : "s"));
+        return true;
+    }
+
+    // Gets the tile next to [pos] in [direction] on [board]. Returns null if that is off the board.
+    public static int[] getTarget(int[] pos, int direction, Board board) {
+        int[] target = step(pos, direction);
+        return (target != null && board.contains(target[0], target[1])) ? target : null;
+    }
+
+    // Gets the tile next to [pos] in [direction] on a [columns] by [rows] board. Returns null if that is off the board.
+    // The same rule as on a TileGrid of that size, without needing one.
+    public static int[] getTarget(int[] pos, int direction, int columns, int rows) {
+        int[] target = step(pos, direction);
+        return (target != null && target[0] >= 0 && target[1] >= 0 && target[0] < columns && target[1] < rows) ? target : null;
+    }
+
+    // Gets the tile next to [pos] in [direction], on or off any board: 0 is right, 1 up, 2 left, 3 down. Returns null for any other direction.
+    private static int[] step(int[] pos, int direction) {
+        switch (direction) {
+            case (0):
+                return new int[]{pos[0]+1, pos[1]};
+            case (1):
+                return new int[]{pos[0], pos[1]-1};
+            case (2):
+                return new int[]{pos[0]-1, pos[1]};
+            case (3):
+                return new int[]{pos[0], pos[1]+1};
+            default:
+                return null;
+        }
+    }
+
+    // Applies the action to the board. Returns the resulting player position.
+    public void doAction() {
+        long start = (Metrics.ENABLED) ? System.nanoTime() : 0;
+        if (debugMode) println(board.types().name(board.get(actPos[0], actPos[1])));
+        doAction(board, playerPos, actPos, bombs);
+        reveal();
+        if (solver != null) solver.observe(actPos[0], actPos[1]);
+        if (Metrics.ENABLED) Metrics.ACTION.record(System.nanoTime()-start);
+    }
+
+    // Says what the solver would do next.
+    public void hint() {
+        if (solver == null) {
+            println("No hints here; the solver only knows grids with a single bomb.");
+            return;
+        }
+        int action = solver.next(playerPos, pingsLeft);
+        String[] directions = {"RIGHT", "UP", "LEFT", "DOWN"}; // Indexed by direction.
+        String tiles = String.format("%d tile%s", solver.candidates(), (solver.candidates() == 1) ? "" : "s");
+        if (action == Solver.PING) println(String.format("HINT: PING. The bomb could be under %s.", tiles));
+        else if (action >= 0) println(String.format("HINT: Go %s. The bomb could be under %s.", directions[action], tiles));
+        else println("HINT: No idea, sorry.");
+    }
+
+    // Reveals the tiles around the player, with fog of war.
+    public void reveal() {
+        if (fog != null) fog.reveal(playerPos[0], playerPos[1]);
+    }
+
+    // Applies acting on [actPos] to [board] with the one bomb at [bombPos]. See below.
+    public static void doAction(Board board, int[] playerPos, int[] actPos, int[] bombPos) {
+        doAction(board, playerPos, actPos, actPos[0] == bombPos[0] && actPos[1] == bombPos[1]);
+    }
+
+    // Applies acting on [actPos] to [board] with the bombs in [bombs]. See below.
+    public static void doAction(Board board, int[] playerPos, int[] actPos, Bombs bombs) {
+        doAction(board, playerPos, actPos, bombs.contains(actPos[0], actPos[1]));
+    }
+
+    // Applies acting on [actPos] to [board], moving [playerPos] if the tile can be entered. [bomb] is whether a bomb is under it. Does no I/O.
+    public static void doAction(Board board, int[] playerPos, int[] actPos, boolean bomb) {
+        if (board.canEnter(actPos[0], actPos[1])) System.arraycopy(actPos, 0, playerPos, 0, 2); // Empty tile or exposed bomb --> move to position.
+        else board.hit(actPos[0], actPos[1], bomb); // Strong tile --> weak tile --> empty tile, exposing the bomb if it is there.
+    }
+
+    // Ask if the player wants to play again. Returns true if yes, false if no.
+    public boolean playAgain() {
+        clearScreen();
+        println("Do you want to play again? [Y/N]");
+        print(">>> ", 0);
+        try {
+            switch (Commands.parse(nextLine())) {
+                case (Commands.YES):
+                    return true;
+                case (Commands.NO):
+                    return false;
+                default:
+                    println("Seems like a NO to me.");
+                    return false;
+            }
+        } catch (Exception e) { // Empty string.
+            println("Seems like a NO to me.");
+            return false;
+        }
+    }
+    
+    // ----------------UTILITY METHODS----------------
+    // Clears the screen.
+    private void clearScreen() {
+        if (!debugMode) renderer.clear();
+        renderer.flush();
+    }
+
+    // Starts a new frame of the board. Written out by renderBoard().
+    private void newFrame() {
+        if (renderer.ansi) renderer.home(); // Draw over the last frame.
+        else if (!debugMode) renderer.clear();
+    }
+    
+    // Pauses the typewriter for [ms] milliseconds before the next output. Does not block the game.
+    private void delay(int ms) {
+        if (pacing && !debugMode) typewriter.pause(ms);
+    }
+
+    // Modified System.out.println(). Delays for 10ms between characters.
+    private void println(String str) {
+        println(str, 10);
+    }
+
+    // Modified System.out.println(). [msDelay] is the delay between characters in milliseconds. 
+    private void println(String str, int msDelay) {
+        typewriter.print(str, (pacing && !debugMode) ? msDelay : 0);
+        typewriter.print("\n", 0);
+    }
+
+    // Modified System.out.print(). Delays for 10ms between character. No newline.
+    private void print(String str) {
+        print(str, 10);
+    }
+
+    // Modified System.out.print(). [msDelay] is the delay between characters in milliseconds. No newline.
+    // The text is queued on the typewriter, which types it out while the game carries on.
+    private void print(String str, int msDelay) {
+        typewriter.print(str, (pacing && !debugMode) ? msDelay : 0);
+    }
+
+    // Reads lines typed by the player into [lines] on a separate thread, so input is never ignored while text is typed out.
+    // Pressing ENTER while text is being typed out skips ahead; an empty line used for that is not passed on to the game.
+    private void startInput() {
+        Threads.start("input", () -> {
+            while (scan.hasNextLine()) {
+                String line = scan.nextLine();
+                if (typewriter.isBusy()) {
+                    typewriter.skip();
+                    if (line.isBlank()) continue;
+                }
+                lines.add(line);
+            }
+            lines.add(END_OF_INPUT);
+        });
+    }
+
+    // Waits for the next line typed by the player. Throws NoSuchElementException once input has ended, like Scanner.
+    private String nextLine() {
+        String line;
+        long start = (Metrics.ENABLED) ? System.nanoTime() : 0;
+        try {
+            line = lines.take();
+        } catch (InterruptedException e) {
+            throw new NoSuchElementException("Interrupted while waiting for input");
+        }
+        if (Metrics.ENABLED) Metrics.INPUT_WAIT.record(System.nanoTime()-start);
+        if (line == END_OF_INPUT) {
+            lines.add(END_OF_INPUT); // Keep it there for the next call.
+            throw new NoSuchElementException("No line found");
+        }
+        if (broadcast != null) typewriter.run(() -> broadcast.text(line + "\n")); // What the player typed, after what came before it.
+        return line;
+    }
+    
+    // Generates [amount] kinda random characters as a string, picked with [rng]
+    static String genRandomChar(int amount, RandomGenerator rng) {
+        char[] random = new char[amount];
+        Animation.rubble(random, 0, amount, rng);
+        return new String(random);
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Every turn of a practice game, for [UNDO] and [REWIND].
+ * A turn is the game as it was at the start of its prompt: a PersistentGrid snapshot, which shares every
+ * untouched leaf with the turns around it, plus the few numbers that change. Going back any number of turns
+ * is an array lookup and a restore, both O(1); the only other work is putting back bombs defused since
+ * (never more than --bombs of them).
+ */
+package game;
+
+import java.util.Arrays;
+public class History {
+    private Turn[] turns = new Turn[64];
+    private int size;
+    private int[] defusedCols = new int[4], defusedRows = new int[4]; // Bombs defused so far, in order.
+    private int defused;
+
+    // The game at the start of one turn.
+    public static class Turn {
+        public final PersistentGrid.Snapshot board;
+        public final int[] playerPos;
+        public final int direction, movesLeft, pingsLeft;
+        private final int defused; // Bombs defused before this turn.
+
+        private Turn(PersistentGrid.Snapshot board, int[] playerPos, int direction, int movesLeft, int pingsLeft, int defused) {
+            this.board = board;
+            this.playerPos = playerPos;
+            this.direction = direction;
+            this.movesLeft = movesLeft;
+            this.pingsLeft = pingsLeft;
+            this.defused = defused;
+        }
+    }
+
+    // Turns kept, the current one included.
+    public int size() {
+        return size;
+    }
+
+    // Keeps the game as it is now as the next turn.
+    public void push(PersistentGrid board, int[] playerPos, int direction, int movesLeft, int pingsLeft) {
+        if (size == turns.length) turns = Arrays.copyOf(turns, size*2);
+        turns[size++] = new Turn(board.snapshot(), playerPos.clone(), direction, movesLeft, pingsLeft, defused);
+    }
+
+    // Notes that the bomb at ([col], [row]) was defused this turn.
+    public void defused(int col, int row) {
+        if (defused == defusedCols.length) {
+            defusedCols = Arrays.copyOf(defusedCols, defused*2);
+            defusedRows = Arrays.copyOf(defusedRows, defused*2);
+        }
+        defusedCols[defused] = col;
+        defusedRows[defused] = row;
+        defused++;
+    }
+
+    // Goes back [count] turns from the current one (1 to size()-1): puts [board] back as it was and [bombs] defused since back.
+    // Returns that turn for the rest of the state. It is taken off too; the game keeps it again when its turn starts.
+    public Turn rewind(int count, PersistentGrid board, Bombs bombs) {
+        if (count < 1 || count >= size) throw new IllegalArgumentException("Can go back 1 to " + (size-1) + " turns, not " + count);
+        int end = size;
+        size -= count+1;
+        Turn turn = turns[size];
+        Arrays.fill(turns, size, end, null); // So the snapshots gone back past, and the leaves only they kept, can be collected.
+        board.restore(turn.board);
+        while (defused > turn.defused) {
+            defused--;
+            bombs.add(defusedCols[defused], defusedRows[defused]);
+        }
+        return turn;
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * Append-only binary journal of one game, enough to play it again exactly.
+ *
+ * Format (big-endian):
+ *      Header (36 bytes): magic "TAGJ", seed (long), columns, rows, moves, pings, start column, start row (ints)
+ *      Records (1 byte each): 0-3 an action in that direction (same as Game.direction), PING,
+ *                             then WON or LOST once the game is over. A journal with no result was interrupted.
+ * record() only takes actions and finish() only results, so the last byte tells them apart, and read() rejects
+ * any other byte.
+ * The board is not stored; the seed and start position make it again (see Game.createWinnableBoard).
+ *
+ * Records go into a small buffer under a lock and never touch the disk on the game's thread.
+ * One flusher thread writes and syncs every open journal each FLUSH_INTERVAL_MS, so a crash loses at most that much.
+ * It only holds the lock to swap the buffer for an empty one, and writes and syncs outside it.
+ *
+ * Usage (replays every journal at full speed and checks its result against today's rules):
+ *      java -cp game/target/game-1.0-SNAPSHOT.jar game.Journal [file or directory]...
+ */
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+public class Journal implements Closeable {
+    public static final int MAGIC = 0x5441474A; // "TAGJ"
+    public static final int HEADER_BYTES = 36;
+    public static final String EXTENSION = ".journal";
+    public static final byte PING = 4;
+    public static final byte WON = 5;
+    public static final byte LOST = 6;
+    public static final long FLUSH_INTERVAL_MS = 50;
+
+    private static final int BUFFER_BYTES = 4096;
+    private static final Set<Journal> OPEN = ConcurrentHashMap.newKeySet();
+    private static final Thread FLUSHER = Threads.start("journal-flusher", Journal::flushLoop);
+
+    public final Path path;
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock(); // Guards [pending] and [failure].
+    private final ReentrantLock flushing = new ReentrantLock(); // One flush at a time, so records are written in order.
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_BYTES); // Records not written yet.
+    private ByteBuffer writing = ByteBuffer.allocate(BUFFER_BYTES); // Records being written by flush().
+    private IOException failure; // First write error; the journal stops recording after one.
+
+    private Journal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+        OPEN.add(this);
+    }
+
+    // Starts a new journal in [dir] for a game with [seed] on a [columns] by [rows] board, starting at [start].
+    public static Journal create(Path dir, long seed, int columns, int rows, int moves, int pings, int[] start) throws IOException {
+        Files.createDirectories(dir);
+        Path path = dir.resolve(String.format("%d-%016x%s", System.currentTimeMillis(), seed, EXTENSION));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        Journal journal = new Journal(path, channel);
+        journal.lock.lock();
+        try {
+            journal.pending.putInt(MAGIC).putLong(seed).putInt(columns).putInt(rows).putInt(moves).putInt(pings).putInt(start[0]).putInt(start[1]);
+        } finally {
+            journal.lock.unlock();
+        }
+        return journal;
+    }
+
+    // Opens the journal of an interrupted game so more records can be added to it.
+    public static Journal append(Entry entry) throws IOException {
+        if (entry.result != -1) throw new IllegalArgumentException(entry.path + " is already finished");
+        FileChannel channel = FileChannel.open(entry.path, StandardOpenOption.WRITE);
+        channel.truncate(HEADER_BYTES+entry.actions.length);
+        channel.position(HEADER_BYTES+entry.actions.length);
+        return new Journal(entry.path, channel);
+    }
+
+    // Adds one action: a direction or PING. Never blocks on the disk: if the disk falls so far behind that the buffer fills, it grows.
+    public void record(int action) {
+        if (action < 0 || action > PING) throw new IllegalArgumentException("Not an action: " + action);
+        put(action);
+    }
+
+    // Adds the result, WON or LOST. Nothing should be recorded after it.
+    public void finish(int result) {
+        if (result != WON && result != LOST) throw new IllegalArgumentException("Not a result: " + result);
+        put(result);
+    }
+
+    private void put(int record) {
+        lock.lock();
+        try {
+            if (failure != null) return;
+            if (!pending.hasRemaining()) pending = ByteBuffer.allocate(pending.capacity()*2).put(pending.flip());
+            pending.put((byte) record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes the buffered records and syncs them to the disk.
+    public void flush() throws IOException {
+        flushing.lock();
+        try {
+            lock.lock();
+            try {
+                if (failure != null) throw failure;
+                if (pending.position() == 0) return;
+                ByteBuffer full = pending; // Swapped for the empty one; records go on into that while this is written.
+                pending = writing;
+                writing = full;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) channel.write(writing);
+                writing.clear();
+                channel.force(false);
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+        } finally {
+            flushing.unlock();
+        }
+    }
+
+    // Flushes what is left and closes the file.
+    @Override
+    public void close() throws IOException {
+        OPEN.remove(this);
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Run by FLUSHER: the group flush of every open journal.
+    private static void flushLoop() {
+        while (true) {
+            try {
+                Thread.sleep(FLUSH_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (Journal journal : OPEN) {
+                try {
+                    journal.flush();
+                } catch (IOException e) {
+                    OPEN.remove(journal); // Kept in [failure]; the game carries on without it.
+                }
+            }
+        }
+    }
+
+    // A journal read back from disk.
+    public static class Entry {
+        public final Path path;
+        public final long seed;
+        public final int columns, rows, moves, pings;
+        public final int[] start;
+        public final byte[] actions; // Every record before the result.
+        public final int result; // WON, LOST, or -1 if the game was interrupted.
+
+        private Entry(Path path, ByteBuffer data) throws IOException {
+            this.path = path;
+            seed = data.getLong();
+            columns = data.getInt();
+            rows = data.getInt();
+            moves = data.getInt();
+            pings = data.getInt();
+            start = new int[]{data.getInt(), data.getInt()};
+            int end = data.limit();
+            int last = (end > HEADER_BYTES) ? data.get(end-1) : -1;
+            result = (last == WON || last == LOST) ? last : -1;
+            actions = new byte[end-HEADER_BYTES-((result == -1) ? 0 : 1)];
+            data.get(actions);
+            for (byte action : actions) {
+                if (action < 0 || action > PING) throw new IOException(path + " has a bad record: " + action);
+            }
+        }
+    }
+
+    // Reads the journal at [path].
+    public static Entry read(Path path) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (data.limit() < HEADER_BYTES || data.getInt() != MAGIC) throw new IOException(path + " is not a journal");
+        return new Entry(path, data);
+    }
+
+    // Plays [entry] again with no output and no delays. Returns the game as it was after the last record.
+    public static Simulation.State replay(Entry entry) {
+        Simulation.State game = new Simulation.State(entry.columns, entry.rows, entry.moves, entry.pings, entry.seed, entry.start);
+        for (byte action : entry.actions) game.turn(action); // Rejected ones were not possible under the rules it was recorded with.
+        return game;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (String arg : (args.length > 0) ? args : new String[]{"journals"}) {
+            try (Stream<Path> files = Files.walk(Paths.get(arg))) {
+                files.filter(path -> path.toString().endsWith(EXTENSION)).forEach(paths::add);
+            }
+        }
+        AtomicLong wins = new AtomicLong(), unfinished = new AtomicLong(), changed = new AtomicLong(), unreadable = new AtomicLong();
+        long start = System.nanoTime();
+        paths.parallelStream().forEach(path -> {
+            Entry entry;
+            try {
+                entry = read(path);
+            } catch (IOException e) {
+                unreadable.incrementAndGet();
+                return;
+            }
+            Simulation.State game = replay(entry);
+            int result = (game.bombFound()) ? WON : (game.movesLeft <= 0) ? LOST : -1;
+            if (result == WON) wins.incrementAndGet();
+            if (entry.result == -1) unfinished.incrementAndGet();
+            else if (result != entry.result) {
+                changed.incrementAndGet();
+                System.out.printf("%s: recorded %s, now %s%n", path, name(entry.result), name(result));
+            }
+        });
+        double seconds = (System.nanoTime()-start)/1e9;
+        System.out.printf("Journals: %d (%d unreadable, %d unfinished)%n", paths.size(), unreadable.get(), unfinished.get());
+        System.out.printf("Wins: %d%n", wins.get());
+        System.out.printf("Results changed: %d%n", changed.get());
+        System.out.printf("Journals per second: %.0f%n", paths.size()/seconds);
+    }
+
+    private static String name(int result) {
+        return (result == WON) ? "WON" : (result == LOST) ? "LOST" : "unfinished";
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Every finished game, kept in an append-only file of fixed-width records, with in-memory indexes for the
+ * questions asked after each game.
+ *
+ * File: a 16-byte header (magic "TAGL", version, record size), then one RECORD_BYTES record per game:
+ *      finished at (long, epoch ms), seed (long), time taken (int, ms), columns, rows, moves left, PINGs used,
+ *      bombs (ints), won (byte), then padding. A record's id is its position in the file.
+ *
+ * Indexes, rebuilt by scanning the file when it is opened:
+ *      Fastest wins per board size: the TOP_CAPACITY best of each, as sorted (time << 32 | id) longs.
+ *      Ids must fit the low 32 bits, so a file holds at most MAX_RECORDS games (about 200 GB).
+ *      Recent times: a ring of the last RECENT_CAPACITY games' times, for percentiles over the last N games.
+ * Both stay a few MB however many games are recorded. Full records are read back by id when they are shown.
+ *
+ * Appends from any number of sessions take one lock for an index update and a single positional write.
+ * Records are not synced to the disk one by one; close() does that.
+ *
+ * Usage (shows the fastest wins and recent percentiles):
+ *      java -cp game/target/game-1.0-SNAPSHOT.jar game.Leaderboard [file] [columns]x[rows] [count]
+ */
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+public class Leaderboard implements Closeable {
+    public static final int MAGIC = 0x5441474C; // "TAGL"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 48;
+    public static final int TOP_CAPACITY = 1000; // Fastest wins kept per board size.
+    public static final int RECENT_CAPACITY = 1 << 20; // Games kept for percentiles.
+    public static final long MAX_RECORDS = 1L << 32; // Games a file can hold: ids below this fit in an index key.
+
+    private static final int SCAN_RECORDS = 1 << 14; // Records read at a time when opening.
+
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private final HashMap<Long, long[]> fastest = new HashMap<>(); // Board size -> sorted keys, count in the last slot.
+    private final int[] recent = new int[RECENT_CAPACITY];
+    private long size; // Records in the file.
+
+    // One finished game.
+    public static class Record {
+        public long id = -1; // Set once stored.
+        public long finishedAt, seed;
+        public int millis, columns, rows, movesLeft, pingsUsed, bombs;
+        public boolean won;
+
+        public Record(long finishedAt, long seed, int millis, int columns, int rows, int movesLeft, int pingsUsed, int bombs, boolean won) {
+            this.finishedAt = finishedAt;
+            this.seed = seed;
+            this.millis = millis;
+            this.columns = columns;
+            this.rows = rows;
+            this.movesLeft = movesLeft;
+            this.pingsUsed = pingsUsed;
+            this.bombs = bombs;
+            this.won = won;
+        }
+
+        private void writeTo(ByteBuffer out) {
+            out.putLong(finishedAt).putLong(seed).putInt(millis).putInt(columns).putInt(rows);
+            out.putInt(movesLeft).putInt(pingsUsed).putInt(bombs).put((byte) ((won) ? 1 : 0));
+            while (out.position() < RECORD_BYTES) out.put((byte) 0);
+        }
+
+        private static Record readFrom(ByteBuffer in) {
+            int start = in.position();
+            Record record = new Record(in.getLong(), in.getLong(), in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.get() == 1);
+            in.position(start+RECORD_BYTES);
+            return record;
+        }
+    }
+
+    private Leaderboard(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    // Opens (or starts) the leaderboard at [path] and builds its indexes.
+    public static Leaderboard open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Leaderboard board = new Leaderboard(channel);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (channel.size() == 0) {
+                header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(0).flip();
+                while (header.hasRemaining()) channel.write(header);
+                return board;
+            }
+            while (header.hasRemaining() && channel.read(header) >= 0) { }
+            header.flip();
+            if (header.limit() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != RECORD_BYTES) {
+                throw new IOException(path + " is not a leaderboard");
+            }
+            board.scan();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return board;
+    }
+
+    // Reads every whole record once to fill the indexes. A torn record at the end (a crash mid-write) is cut off.
+    private void scan() throws IOException {
+        long records = (channel.size()-HEADER_BYTES)/RECORD_BYTES;
+        if (records > MAX_RECORDS) throw new IOException("Leaderboard has more than " + MAX_RECORDS + " games");
+        channel.truncate(HEADER_BYTES+records*RECORD_BYTES);
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_RECORDS*RECORD_BYTES);
+        for (long id = 0; id < records; ) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), (records-id)*RECORD_BYTES));
+            long at = HEADER_BYTES+id*RECORD_BYTES;
+            while (chunk.hasRemaining()) {
+                if (channel.read(chunk, at+chunk.position()) < 0) throw new IOException("Leaderboard ended early");
+            }
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                Record record = Record.readFrom(chunk);
+                record.id = id++;
+                index(record);
+            }
+        }
+    }
+
+    // Stores [record] and sets its id. Returns the id.
+    public long append(Record record) throws IOException {
+        lock.lock();
+        try {
+            if (size == MAX_RECORDS) throw new IOException("Leaderboard is full: " + MAX_RECORDS + " games");
+            record.id = size;
+            this.record.clear();
+            record.writeTo(this.record);
+            this.record.flip();
+            long at = HEADER_BYTES+size*RECORD_BYTES;
+            while (this.record.hasRemaining()) channel.write(this.record, at+this.record.position());
+            index(record);
+            return record.id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Adds [record] to the indexes. Call with the lock held (or while opening).
+    private void index(Record record) {
+        recent[(int) (size % RECENT_CAPACITY)] = record.millis;
+        size++;
+        if (!record.won) return;
+        long[] top = fastest.computeIfAbsent(sizeKey(record.columns, record.rows), key -> new long[TOP_CAPACITY+1]);
+        int count = (int) top[TOP_CAPACITY];
+        long key = ((long) record.millis << 32) | record.id;
+        if (count == TOP_CAPACITY && key >= top[count-1]) return;
+        int at = Arrays.binarySearch(top, 0, count, key);
+        at = (at < 0) ? -at-1 : at;
+        int moved = Math.min(count, TOP_CAPACITY-1)-at;
+        System.arraycopy(top, at, top, at+1, moved);
+        top[at] = key;
+        top[TOP_CAPACITY] = Math.min(count+1, TOP_CAPACITY);
+    }
+
+    // Games recorded.
+    public long size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The [count] fastest wins on a [columns] by [rows] board, fastest first (ties by who got there first).
+    public List<Record> fastestWins(int columns, int rows, int count) throws IOException {
+        long[] ids;
+        lock.lock();
+        try {
+            long[] top = fastest.get(sizeKey(columns, rows));
+            int found = (top == null) ? 0 : (int) Math.min(count, top[TOP_CAPACITY]);
+            ids = new long[found];
+            for (int i = 0; i < found; i++) ids[i] = top[i] & 0xFFFFFFFFL;
+        } finally {
+            lock.unlock();
+        }
+        List<Record> records = new ArrayList<>(ids.length);
+        for (long id : ids) records.add(read(id));
+        return records;
+    }
+
+    // Where a win in [millis] on a [columns] by [rows] board ranks, from 1. Returns -1 if it is outside the top TOP_CAPACITY.
+    public int rank(int columns, int rows, int millis, long id) {
+        if (id < 0 || id >= MAX_RECORDS) return -1; // Never stored.
+        lock.lock();
+        try {
+            long[] top = fastest.get(sizeKey(columns, rows));
+            if (top == null) return -1;
+            int at = Arrays.binarySearch(top, 0, (int) top[TOP_CAPACITY], ((long) millis << 32) | id);
+            return (at < 0) ? -1 : at+1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The time taken that [percentile] (0 to 100) of the last [games] games beat or matched. -1 if there are none.
+    public int percentileMillis(double percentile, int games) {
+        int[] times;
+        lock.lock();
+        try {
+            int n = (int) Math.min(Math.min(games, size), RECENT_CAPACITY);
+            times = new int[n];
+            for (int i = 0; i < n; i++) times[i] = recent[(int) ((size-n+i) % RECENT_CAPACITY)];
+        } finally {
+            lock.unlock();
+        }
+        if (times.length == 0) return -1;
+        int k = (int) Math.min(times.length-1, Math.max(0, Math.ceil(percentile/100*times.length)-1));
+        return select(times, k);
+    }
+
+    // Reads the record with [id] from the file.
+    public Record read(long id) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+        long at = HEADER_BYTES+id*RECORD_BYTES;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, at+buffer.position()) < 0) throw new IOException("No record " + id);
+        }
+        buffer.flip();
+        Record record = Record.readFrom(buffer);
+        record.id = id;
+        return record;
+    }
+
+    // Syncs the records to the disk and closes the file.
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            channel.force(true);
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The [k]th smallest of [values] (from 0), in linear time on average. Reorders [values].
+    private static int select(int[] values, int k) {
+        int low = 0, high = values.length-1;
+        while (low < high) {
+            int pivot = values[(low+high) >>> 1];
+            int i = low, j = high;
+            while (i <= j) {
+                while (values[i] < pivot) i++;
+                while (values[j] > pivot) j--;
+                if (i <= j) {
+                    int swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (k <= j) high = j;
+            else if (k >= i) low = i;
+            else return values[k];
+        }
+        return values[k];
+    }
+
+    private static long sizeKey(int columns, int rows) {
+        return ((long) columns << 32) | (rows & 0xFFFFFFFFL);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get((args.length > 0) ? args[0] : "leaderboard.dat");
+        String[] size = ((args.length > 1) ? args[1] : Game.BOARD_COLUMNS + "x" + Game.BOARD_ROWS).split("x");
+        int count = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+        long start = System.nanoTime();
+        try (Leaderboard board = open(path)) {
+            System.out.printf("%d games, opened in %.1f ms%n", board.size(), (System.nanoTime()-start)/1e6);
+            int columns = Integer.parseInt(size[0]), rows = Integer.parseInt(size[1]);
+            start = System.nanoTime();
+            List<Record> wins = board.fastestWins(columns, rows, count);
+            System.out.printf("Fastest wins on %dx%d (%.2f ms):%n", columns, rows, (System.nanoTime()-start)/1e6);
+            for (int i = 0; i < wins.size(); i++) {
+                Record win = wins.get(i);
+                System.out.printf("%4d. %8.2f s, %d moves left, %d PINGs, seed %d%n", i+1, win.millis/1000d, win.movesLeft, win.pingsUsed, win.seed);
+            }
+            for (int games : new int[]{100, 10_000, RECENT_CAPACITY}) {
+                start = System.nanoTime();
+                int median = board.percentileMillis(50, games), p90 = board.percentileMillis(90, games);
+                System.out.printf("Last %d games: median %.2f s, 90th percentile %.2f s (%.2f ms)%n",
+                    games, median/1000d, p90/1000d, (System.nanoTime()-start)/1e6);
+            }
+        }
+    }
+}
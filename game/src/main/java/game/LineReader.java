@@ -0,0 +1,119 @@
+/**
+ * Reads lines from a stream as bytes, straight out of its own buffer.
+ * For scripted input (see Batch): no Scanner, no String per line and no exceptions for bad input.
+ * The current line is buffer()[start()] to buffer()[start()+length()-1], without the line ending,
+ * and stays valid until the next call to next().
+ */
+package game;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+public class LineReader {
+    public static final int NOT_A_NUMBER = Integer.MIN_VALUE;
+
+    private final InputStream in;
+    private byte[] buffer = new byte[1 << 16];
+    private int position, limit; // Unread bytes are buffer[position] to buffer[limit-1].
+    private int start, length;
+    private long lines;
+
+    public LineReader(InputStream in) {
+        this.in = in;
+    }
+
+    // Moves to the next line. Returns false once the input has ended.
+    public boolean next() throws IOException {
+        int scanned = 0; // Bytes after [position] already known not to end the line.
+        while (true) {
+            for (int i = position+scanned; i < limit; i++) {
+                if (buffer[i] != '\n') continue;
+                take(i, i+1);
+                return true;
+            }
+            scanned = limit-position;
+            if (!fill()) {
+                if (position == limit) return false;
+                take(limit, limit); // Last line, with no line ending.
+                return true;
+            }
+        }
+    }
+
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int start() {
+        return start;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // Lines read so far, counting the current one.
+    public long lines() {
+        return lines;
+    }
+
+    // The command on the current line, see Commands.parse().
+    public int command() {
+        return Commands.parse(buffer, start, length);
+    }
+
+    // The whole number on the current line, or NOT_A_NUMBER if it is not one.
+    public int number() {
+        return parseInt(buffer, start, length);
+    }
+
+    // Parses [len] ASCII bytes of [text] from [off] as a whole number, ignoring spaces around it.
+    // Returns NOT_A_NUMBER if it is not one or does not fit in an int.
+    public static int parseInt(byte[] text, int off, int len) {
+        int end = off+len;
+        while (off < end && text[off] <= ' ') off++;
+        while (end > off && text[end-1] <= ' ') end--;
+        boolean negative = false;
+        if (off < end && (text[off] == '-' || text[off] == '+')) negative = (text[off++] == '-');
+        if (off == end) return NOT_A_NUMBER;
+        long value = 0;
+        for (int i = off; i < end; i++) {
+            int digit = text[i]-'0';
+            if (digit < 0 || digit > 9 || (value = value*10+digit) > (long) Integer.MAX_VALUE+1) return NOT_A_NUMBER;
+        }
+        value = (negative) ? -value : value;
+        return (value < Integer.MIN_VALUE+1 || value > Integer.MAX_VALUE) ? NOT_A_NUMBER : (int) value;
+    }
+
+    // Same as above for the characters of [text]. Null is not a number.
+    public static int parseInt(CharSequence text) {
+        if (text == null) return NOT_A_NUMBER;
+        byte[] ascii = new byte[text.length()];
+        for (int i = 0; i < ascii.length; i++) ascii[i] = (byte) Math.min(text.charAt(i), 0x7F);
+        return parseInt(ascii, 0, ascii.length);
+    }
+
+    // Makes the bytes from position to [end] the current line, minus a '\r' before the '\n', and continues at [next].
+    private void take(int end, int next) {
+        start = position;
+        length = end-position;
+        if (length > 0 && buffer[start+length-1] == '\r') length--;
+        position = next;
+        lines++;
+    }
+
+    // Reads more input, moving the unread bytes to the front (or growing the buffer for a very long line).
+    // Returns false if the input has ended.
+    private boolean fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit-position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length*2);
+        int read = in.read(buffer, limit, buffer.length-limit);
+        if (read <= 0) return false;
+        limit += read;
+        return true;
+    }
+}
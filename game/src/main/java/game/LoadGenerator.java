@@ -0,0 +1,139 @@
+/**
+ * Load generator for Server: opens thousands of scripted sessions at once and measures how the server holds up.
+ * Each session turns on DEBUG (which has no delays), picks a starting tile, then sends random moves,
+ * timing every command from sending it to the next ">>> " prompt coming back.
+ * Reports sessions per core, heap per session (when the server runs in this JVM) and latency percentiles.
+ *
+ * Usage:
+ *      java -cp game/target/game-1.0-SNAPSHOT.jar game.LoadGenerator [sessions] [moves] [port]
+ *      Without a port, a Server is started inside this JVM.
+ */
+package game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+public class LoadGenerator {
+    private static final byte[] PROMPT = ">>> ".getBytes(StandardCharsets.UTF_8);
+    private static final String[] MOVES = {"W", "A", "S", "D"};
+
+    public static void main(String[] args) throws Exception {
+        int sessions = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+        int moves = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        Server server = null;
+        int port;
+        if (args.length > 2) port = Integer.parseInt(args[2]);
+        else {
+            server = new Server(0);
+            Threads.start("server", server::serve);
+            port = server.port();
+        }
+
+        long heapBefore = usedHeap();
+        CountDownLatch ready = new CountDownLatch(sessions), go = new CountDownLatch(1), done = new CountDownLatch(sessions);
+        long[][] latencies = new long[sessions][];
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < sessions; i++) {
+            int session = i;
+            Threads.start("client-" + i, () -> {
+                try {
+                    latencies[session] = runSession(port, moves, new SplittableRandom(session), ready, go);
+                    completed.incrementAndGet();
+                } catch (IOException e) {
+                    latencies[session] = new long[0];
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        ready.await();
+        long heapPerSession = (usedHeap()-heapBefore)/sessions;
+        long start = System.nanoTime();
+        go.countDown();
+        done.await();
+        double seconds = (System.nanoTime()-start)/1e9;
+        if (server != null) server.close();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Sessions: %d at once (%d completed) on %d cores, %s threads%n",
+            sessions, completed.get(), cores, (Threads.VIRTUAL) ? "virtual" : "platform");
+        System.out.printf("Sessions per core: %.0f%n", (double) sessions/cores);
+        if (server != null) System.out.printf("Heap per session: %.1f KB (server and client side, this JVM)%n", heapPerSession/1024d);
+        System.out.printf("Commands: %d in %.2f s (%.0f/s)%n", all.length, seconds, all.length/seconds);
+        if (all.length == 0) return;
+        System.out.printf("Latency (ms): p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+            percentile(all, 50), percentile(all, 90), percentile(all, 99), percentile(all, 99.9), all[all.length-1]/1e6);
+    }
+
+    // Plays one scripted session. Counts down [ready] at the first action prompt and waits for [go] before moving.
+    // Returns the latency of each move in nanoseconds.
+    private static long[] runSession(int port, int moves, SplittableRandom rng, CountDownLatch ready, CountDownLatch go) throws IOException {
+        long[] latencies = new long[moves];
+        int sent = 0;
+        boolean counted = false;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            String[] setup = {"DEBUG", String.valueOf(rng.nextInt(Game.BOARD_COLUMNS)), String.valueOf(rng.nextInt(Game.BOARD_ROWS))};
+            for (String line : setup) {
+                if (!awaitPrompt(in)) return new long[0];
+                send(out, line);
+            }
+            if (!awaitPrompt(in)) return new long[0];
+            ready.countDown();
+            counted = true;
+            go.await();
+            for (; sent < moves; sent++) {
+                long start = System.nanoTime();
+                send(out, MOVES[rng.nextInt(MOVES.length)]);
+                if (!awaitPrompt(in)) break; // Game over.
+                latencies[sent] = System.nanoTime()-start;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!counted) ready.countDown();
+        }
+        return Arrays.copyOf(latencies, sent);
+    }
+
+    private static void send(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    // Reads until the next ">>> " prompt. Returns false if the server hung up first.
+    private static boolean awaitPrompt(InputStream in) throws IOException {
+        int matched = 0, b;
+        while ((b = in.read()) != -1) {
+            if (b == PROMPT[matched]) {
+                if (++matched == PROMPT.length) return true;
+            }
+            else matched = (b == PROMPT[0]) ? 1 : 0;
+        }
+        return false;
+    }
+
+    private static double percentile(long[] sorted, double percent) {
+        int index = (int) Math.ceil(percent/100*sorted.length)-1;
+        return sorted[Math.max(0, Math.min(sorted.length-1, index))]/1e6;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory()-runtime.freeMemory();
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Where the time goes in the game loop, for every session in the process: latency histograms and counters,
+ * a JFR TurnEvent per turn, a JMX MXBean (game:type=Metrics) and an optional snapshot dumped to a file.
+ *
+ * Off unless the JVM is started with -Dgame.metrics=true. ENABLED is a static final, so with metrics off every
+ * "if (Metrics.ENABLED)" in the game is compiled away by the JIT and costs nothing, not even a clock read.
+ * With them on, recording is a few lock-free adds: histograms are fixed arrays of atomic counts and counters are
+ * LongAdders, so sessions on many threads don't contend.
+ *
+ * Properties:
+ *      game.metrics=true           Record metrics.
+ *      game.metrics.dump=[file]    Append a snapshot to [file] every game.metrics.period seconds (default 60).
+ *
+ * Histograms keep 4 buckets per power of 2 of nanoseconds, so a percentile is within 12.5% of the real value.
+ */
+package game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("game.metrics");
+    public static final String OBJECT_NAME = "game:type=Metrics";
+
+    public static final Histogram INPUT_WAIT = new Histogram("inputWait"); // Waiting for the player to type a line.
+    public static final Histogram ACTION = new Histogram("doAction");
+    public static final Histogram RENDER = new Histogram("renderBoard");
+    public static final Histogram PACING = new Histogram("pacing"); // Typing out one message, or one delay().
+    private static final Histogram[] HISTOGRAMS = {INPUT_WAIT, ACTION, RENDER, PACING};
+
+    public static final LongAdder TURNS = new LongAdder();
+    public static final LongAdder MOVES = new LongAdder(); // Actions that moved the player.
+    public static final LongAdder HITS = new LongAdder(); // Actions that hit a tile.
+    public static final LongAdder REJECTED = new LongAdder(); // Moves off the board.
+    public static final LongAdder PINGS = new LongAdder();
+    public static final LongAdder FRAMES = new LongAdder(); // Boards rendered.
+    public static final LongAdder BYTES = new LongAdder(); // Bytes written to players.
+    public static final LongAdder GAMES = new LongAdder();
+
+    static {
+        if (ENABLED) start();
+    }
+
+    private Metrics() { }
+
+    // Latencies in nanoseconds, bucketed by their 3 highest bits.
+    public static class Histogram {
+        private static final int SUB_BITS = 2;
+        private static final int SUBS = 1 << SUB_BITS;
+
+        public final String name;
+        private final AtomicLongArray counts = new AtomicLongArray(64*SUBS);
+        private final LongAdder total = new LongAdder(), sum = new LongAdder();
+
+        private Histogram(String name) {
+            this.name = name;
+        }
+
+        public void record(long nanos) {
+            nanos = Math.max(0, nanos);
+            counts.incrementAndGet(bucket(nanos));
+            total.increment();
+            sum.add(nanos);
+        }
+
+        public long count() {
+            return total.sum();
+        }
+
+        public double meanNanos() {
+            long count = total.sum();
+            return (count == 0) ? 0 : (double) sum.sum()/count;
+        }
+
+        // The latency [percentile] (0 to 100) of the recordings were at or under, as the middle of its bucket. 0 if none.
+        public long percentileNanos(double percentile) {
+            long count = total.sum();
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile/100*count)), seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) return middle(i);
+            }
+            return middle(counts.length()-1);
+        }
+
+        private static int bucket(long value) {
+            if (value < SUBS) return (int) value;
+            int exponent = 63-Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent-SUB_BITS)) & (SUBS-1);
+            return ((exponent-SUB_BITS+1) << SUB_BITS)+sub;
+        }
+
+        private static long middle(int bucket) {
+            if (bucket < SUBS) return bucket;
+            int exponent = (bucket >>> SUB_BITS)+SUB_BITS-1;
+            long width = 1L << (exponent-SUB_BITS);
+            return (1L << exponent)+(bucket & (SUBS-1))*width+width/2;
+        }
+    }
+
+    // Counts every byte written through it into BYTES.
+    public static OutputStream counting(OutputStream out) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                BYTES.increment();
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) throws IOException {
+                out.write(bytes, off, len);
+                BYTES.add(len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.close();
+            }
+        };
+    }
+
+    // Every counter and percentile by name, in a fixed order. Times are in milliseconds.
+    public static Map<String, Double> values() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("games", (double) GAMES.sum());
+        values.put("turns", (double) TURNS.sum());
+        values.put("moves", (double) MOVES.sum());
+        values.put("hits", (double) HITS.sum());
+        values.put("rejected", (double) REJECTED.sum());
+        values.put("pings", (double) PINGS.sum());
+        values.put("frames", (double) FRAMES.sum());
+        values.put("bytes", (double) BYTES.sum());
+        for (Histogram histogram : HISTOGRAMS) {
+            values.put(histogram.name + ".count", (double) histogram.count());
+            values.put(histogram.name + ".mean", histogram.meanNanos()/1e6);
+            values.put(histogram.name + ".p50", histogram.percentileNanos(50)/1e6);
+            values.put(histogram.name + ".p99", histogram.percentileNanos(99)/1e6);
+            values.put(histogram.name + ".max", histogram.percentileNanos(100)/1e6);
+        }
+        return values;
+    }
+
+    // One line of "name=value" pairs, stamped with the time.
+    public static String snapshot() {
+        StringBuilder line = new StringBuilder(512).append("time=").append(Instant.now());
+        for (Map.Entry<String, Double> value : values().entrySet()) {
+            double number = value.getValue();
+            line.append(' ').append(value.getKey()).append('=');
+            if (number == Math.rint(number)) line.append((long) number);
+            else line.append(String.format("%.3f", number));
+        }
+        return line.toString();
+    }
+
+    // Registers the MXBean and starts the dump, once, when the class is first used.
+    private static void start() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (Exception e) {
+            System.err.println("Metrics are not on JMX: " + e);
+        }
+        String dump = System.getProperty("game.metrics.dump");
+        if (dump == null) return;
+        Path path = Paths.get(dump);
+        long period = Long.getLong("game.metrics.period", 60)*1000;
+        Threads.start("metrics-dump", () -> {
+            while (true) {
+                try {
+                    Thread.sleep(period);
+                    Files.write(path, (snapshot() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Could not dump metrics: " + e.getMessage());
+                    return;
+                }
+            }
+        });
+    }
+
+    private static class Bean implements MetricsMXBean {
+        @Override
+        public Map<String, Double> getValues() {
+            return values();
+        }
+
+        @Override
+        public String getSnapshot() {
+            return snapshot();
+        }
+
+        @Override
+        public long getTurns() {
+            return TURNS.sum();
+        }
+
+        @Override
+        public long getFramesRendered() {
+            return FRAMES.sum();
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return BYTES.sum();
+        }
+    }
+}
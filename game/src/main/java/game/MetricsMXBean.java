@@ -0,0 +1,19 @@
+/**
+ * The game's Metrics on JMX, as game:type=Metrics. Only registered with -Dgame.metrics=true.
+ */
+package game;
+
+import java.util.Map;
+public interface MetricsMXBean {
+    // Every counter and percentile by name; times in milliseconds.
+    Map<String, Double> getValues();
+
+    // The same as one line of the dump.
+    String getSnapshot();
+
+    long getTurns();
+
+    long getFramesRendered();
+
+    long getBytesWritten();
+}
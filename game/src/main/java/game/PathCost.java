@@ -0,0 +1,73 @@
+/**
+ * Exact minimum number of moves between two tiles of a board, counting the real cost of doAction():
+ *      EMPTY, BOMB: 1 move to step in.
+ *      WEAK:        1 hit + 1 move.
+ *      STRONG:      2 hits + 1 move.
+ *      Others:      hits until it can be entered + 1 move (TileTypes.cost()). Tiles that never break are walls.
+ * Every action uses a move and turning is free, so this is a shortest path where entering a tile costs 1 to 3.
+ *
+ * With only 3 possible edge costs, Dijkstra's priority queue can be replaced by 4 buckets used round-robin
+ * (Dial's algorithm): every tile is taken out of the bucket for its distance, and its neighbours go into
+ * one of the next 3 buckets. No heap, no comparisons, linear time in the number of tiles.
+ * Types that cost more to break through take more buckets, the next power of 2 above their largest cost.
+ */
+package game;
+
+import java.util.Arrays;
+
+public class PathCost {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int MAX_CELLS = Integer.MAX_VALUE-8;
+
+    // Fewest moves to go from [start] to [target] on [board], breaking tiles on the way. 0 if they are the same tile.
+    public static int minMoves(TileGrid board, int[] start, int[] target) {
+        int columns = board.columns;
+        if ((long) columns*board.rows > MAX_CELLS) throw new IllegalArgumentException("Board too large: " + columns + "x" + board.rows);
+        int[] dist = new int[columns*board.rows];
+        Arrays.fill(dist, UNREACHABLE);
+        int mask = buckets(board.types)-1;
+        int[][] buckets = new int[mask+1][64];
+        int[] sizes = new int[mask+1];
+        int goal = target[1]*columns+target[0];
+        int source = start[1]*columns+start[0];
+        dist[source] = 0;
+        buckets[0][sizes[0]++] = source;
+        long pending = 1;
+        for (int d = 0; pending > 0; d++) {
+            int b = d & mask;
+            while (sizes[b] > 0) {
+                int cell = buckets[b][--sizes[b]];
+                pending--;
+                if (dist[cell] != d) continue; // Already taken out with a smaller distance.
+                if (cell == goal) return d;
+                int col = cell%columns, row = cell/columns;
+                // Same order as getTarget(): right, up, left, down.
+                if (col+1 < columns) pending += relax(board, dist, buckets, sizes, mask, d, col+1, row);
+                if (row > 0) pending += relax(board, dist, buckets, sizes, mask, d, col, row-1);
+                if (col > 0) pending += relax(board, dist, buckets, sizes, mask, d, col-1, row);
+                if (row+1 < board.rows) pending += relax(board, dist, buckets, sizes, mask, d, col, row+1);
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    // Buckets needed for a board of [types]: more than the largest cost, and a power of 2.
+    public static int buckets(TileTypes types) {
+        return Integer.highestOneBit(types.maxCost) << 1;
+    }
+
+    // Offers the tile at ([col], [row]) a path of [d] moves plus its cost. Returns 1 if it was queued, 0 if not.
+    private static int relax(TileGrid board, int[] dist, int[][] buckets, int[] sizes, int mask, int d, int col, int row) {
+        int cell = row*board.columns+col;
+        int cost = board.types.cost(board.get(col, row));
+        if (cost == TileTypes.NEVER) return 0;
+        int next = d+cost;
+        if (next >= dist[cell]) return 0;
+        dist[cell] = next;
+        int b = next & mask;
+        if (sizes[b] == buckets[b].length) buckets[b] = Arrays.copyOf(buckets[b], sizes[b]*2);
+        buckets[b][sizes[b]++] = cell;
+        return 1;
+    }
+}
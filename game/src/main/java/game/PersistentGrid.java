@@ -0,0 +1,158 @@
+/**
+ * A grid like TileGrid that keeps old versions of itself cheaply, for undo and for trying moves out.
+ *
+ * Tiles are packed like in TileGrid, into leaves of LEAF_WORDS longs (256 tiles at 2 bits each), under a tree of
+ * nodes with BRANCH children each. snapshot() freezes the current version in O(1). The next write to a frozen
+ * leaf copies that leaf and the nodes above it (path copying); every other leaf stays shared with the snapshot.
+ * A turn that changes one tile costs one leaf and height() small nodes, whatever the size of the board,
+ * and restore() goes back to any snapshot of the same size in O(1).
+ *
+ * Every node remembers the owner it was made under. Only nodes made since the last snapshot() belong to the
+ * current owner, and only those are written in place.
+ */
+package game;
+
+public class PersistentGrid implements Board {
+    public static final int LEAF_BITS = 3;
+    public static final int LEAF_WORDS = 1 << LEAF_BITS; // Longs per leaf.
+    public static final int BRANCH_BITS = 5;
+    public static final int BRANCH = 1 << BRANCH_BITS; // Children per node.
+
+    public final TileTypes types;
+    public final int columns, rows;
+    private final int bitShift, wordShift, mask; // Packing, same as TileGrid.
+    private final int height; // Levels of nodes above the leaves.
+    private Node root;
+    private Object owner = new Object(); // Nodes made by this version, see above.
+
+    // A leaf ([words]) or a node ([children]).
+    private static class Node {
+        final Object owner;
+        final long[] words;
+        final Node[] children;
+
+        Node(Object owner, long[] words, Node[] children) {
+            this.owner = owner;
+            this.words = words;
+            this.children = children;
+        }
+
+        Node copy(Object owner) {
+            return new Node(owner, (words == null) ? null : words.clone(), (children == null) ? null : children.clone());
+        }
+    }
+
+    // A frozen version of a grid. Costs nothing until the grid is written to again.
+    public static class Snapshot {
+        public final int columns, rows;
+        private final Node root;
+
+        private Snapshot(int columns, int rows, Node root) {
+            this.columns = columns;
+            this.rows = rows;
+            this.root = root;
+        }
+    }
+
+    // Makes a copy of [grid].
+    public PersistentGrid(TileGrid grid) {
+        types = grid.types;
+        columns = grid.columns;
+        rows = grid.rows;
+        bitShift = Integer.numberOfTrailingZeros(grid.bits);
+        wordShift = Integer.numberOfTrailingZeros(grid.tilesPerWord);
+        mask = (1 << grid.bits)-1;
+        long words = ((long) columns*rows+(1 << wordShift)-1) >>> wordShift;
+        long leaves = (words+LEAF_WORDS-1)/LEAF_WORDS;
+        int levels = 0;
+        while ((1L << (levels*BRANCH_BITS)) < leaves) levels++;
+        height = levels;
+        root = build(height, 0, leaves);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) set(col, row, grid.get(col, row));
+        }
+    }
+
+    // Makes the subtree [level]s above the leaves whose first leaf is [first], leaving out leaves from [leaves] on.
+    private Node build(int level, long first, long leaves) {
+        if (level == 0) return new Node(owner, new long[LEAF_WORDS], null);
+        Node node = new Node(owner, null, new Node[BRANCH]);
+        long span = 1L << ((level-1)*BRANCH_BITS); // Leaves under each child.
+        for (int i = 0; i < BRANCH && first+i*span < leaves; i++) node.children[i] = build(level-1, first+i*span, leaves);
+        return node;
+    }
+
+    @Override
+    public int get(int col, int row) {
+        long index = (long) row*columns+col;
+        long word = index >>> wordShift;
+        return (int) (leaf(word).words[(int) (word & (LEAF_WORDS-1))] >>> (((int) index & ((1 << wordShift)-1)) << bitShift)) & mask;
+    }
+
+    @Override
+    public void set(int col, int row, int tile) {
+        if (get(col, row) == tile) return; // Nothing to copy.
+        long index = (long) row*columns+col;
+        long word = index >>> wordShift;
+        long leaf = word >>> LEAF_BITS;
+        Node node = root = editable(root);
+        for (int level = height; level > 0; level--) {
+            int slot = (int) (leaf >>> ((level-1)*BRANCH_BITS)) & (BRANCH-1);
+            node = node.children[slot] = editable(node.children[slot]);
+        }
+        int at = (int) (word & (LEAF_WORDS-1));
+        int shift = ((int) index & ((1 << wordShift)-1)) << bitShift;
+        node.words[at] = (node.words[at] & ~((long) mask << shift)) | ((long) (tile & mask) << shift);
+    }
+
+    @Override
+    public TileTypes types() {
+        return types;
+    }
+
+    @Override
+    public boolean contains(int col, int row) {
+        return col >= 0 && row >= 0 && col < columns && row < rows;
+    }
+
+    // Levels of nodes above the leaves; a write after a snapshot copies this many nodes and one leaf.
+    public int height() {
+        return height;
+    }
+
+    // Freezes the grid as it is now. O(1).
+    public Snapshot snapshot() {
+        owner = new Object(); // Every node so far is now shared with the snapshot.
+        return new Snapshot(columns, rows, root);
+    }
+
+    // Puts the grid back to [snapshot], taken from this grid or one of the same size. O(1).
+    public void restore(Snapshot snapshot) {
+        if (snapshot.columns != columns || snapshot.rows != rows) {
+            throw new IllegalArgumentException("Snapshot is " + snapshot.columns + "x" + snapshot.rows + ", grid is " + columns + "x" + rows);
+        }
+        root = snapshot.root; // Made under older owners, so the next writes copy instead of changing the snapshot.
+    }
+
+    // Copies the tiles into a new TileGrid.
+    public TileGrid toTileGrid() {
+        TileGrid grid = new TileGrid(types, columns, rows);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) grid.set(col, row, get(col, row));
+        }
+        return grid;
+    }
+
+    // Finds the leaf holding [word].
+    private Node leaf(long word) {
+        long leaf = word >>> LEAF_BITS;
+        Node node = root;
+        for (int level = height; level > 0; level--) node = node.children[(int) (leaf >>> ((level-1)*BRANCH_BITS)) & (BRANCH-1)];
+        return node;
+    }
+
+    // [node] if this version made it, otherwise a copy of it that this version can change.
+    private Node editable(Node node) {
+        return (node.owner == owner) ? node : node.copy(owner);
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Draws frames of the game board.
+ * Each frame is composed into one reusable buffer and written to the output with a single write,
+ * instead of one print per tile.
+ *
+ * In ANSI mode, the board is drawn once and later frames only redraw the cells that changed since
+ * the previous frame (the player arrow, hit tiles), moving the cursor with escape codes.
+ * This assumes the frame and the prompts below it fit in the terminal, since scrolling moves the board.
+ * An Animation is drawn over the board; cells() writes just the cells its last frame changed.
+ *
+ * Any rectangle of a Board can be drawn (a window of an endless World), labelled with its real coordinates.
+ * With a Fog, tiles not yet seen are drawn as TILE_FOG. Its bits are read 64 tiles at a time, and a span with
+ * none seen is drawn without reading the board at all.
+ */
+package game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+public class Renderer {
+    private static final char[] ARROWS = {'►', '▲', '◄', '▼'}; // Indexed by Game.direction.
+    private static final String ESC = "\033[";
+    private static final String SAVE_CURSOR = "\0337", RESTORE_CURSOR = "\0338";
+    private static final int ROW_INDICATOR_WIDTH = 6; // "%-3d   "
+    private static final int TILE_WIDTH = 6; // Tile, then 3 spaces.
+
+    public final boolean ansi;
+    public Fog fog; // Tiles the player has seen, or null to show every tile.
+    public Animation animation; // Drawn over the view it covers, or null.
+    private final OutputStream out;
+    private final CharsetEncoder encoder;
+    private final StringBuilder frame = new StringBuilder(4096);
+    private char[] chars = new char[4096];
+    private CharBuffer charView = CharBuffer.wrap(chars);
+    private ByteBuffer bytes = ByteBuffer.allocate(8192);
+    private final char[] cell = new char[3];
+
+    // ANSI mode only: what is on screen from the last frame.
+    private char[] shown = new char[0]; // 3 glyph characters per cell.
+    private int shownColumns, shownRows, shownTop; // shownTop is the screen line of the column indicators.
+    private int shownLeft, shownTopRow; // Board coordinates of the top left cell on screen.
+    private int line; // Screen line the next character of the frame goes on, counting from 1.
+    private boolean stale = true; // Whether the whole board must be drawn again.
+    private int cursorLine, cursorColumn; // Where the cursor is while cells are being redrawn, or -1 if unknown.
+
+    public Renderer(OutputStream out, Charset charset, boolean ansi) {
+        this.out = out;
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.ansi = ansi;
+    }
+
+    // Tile columns that fit in [width] characters, at least 1.
+    public static int columnsThatFit(int width) {
+        return Math.max(1, (width-ROW_INDICATOR_WIDTH)/TILE_WIDTH);
+    }
+
+    // Tile rows that fit in [lines] screen lines, column indicators included. At least 1.
+    public static int rowsThatFit(int lines) {
+        return Math.max(1, (lines-2)/2);
+    }
+
+    // Queues clearing the whole screen.
+    public void clear() {
+        if (ansi) {
+            frame.append(ESC).append("H").append(ESC).append("2J");
+            stale = true;
+            line = 1;
+        }
+        else frame.append("\n\n\n\n\n\n\n\n\n\n\n\n\n\n\n");
+    }
+
+    // Queues moving back to the top of the screen to redraw the next frame over the last one. ANSI mode only.
+    public void home() {
+        frame.append(ESC).append("H");
+        line = 1;
+    }
+
+    // Queues [text] above or below the board.
+    public void text(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                if (ansi) frame.append(ESC).append("K"); // Erase what the last frame left on this line.
+                line++;
+            }
+            frame.append(c);
+        }
+    }
+
+    // Queues the whole grid.
+    public void board(TileGrid board, int[] playerPos, int direction) {
+        board(board, 0, 0, board.columns, board.rows, playerPos, direction);
+    }
+
+    // Queues the [columns] by [rows] tiles of [board] from ([left], [top]).
+    public void board(Board board, int left, int top, int columns, int rows, int[] playerPos, int direction) {
+        if (!ansi) {
+            drawBoard(board, left, top, columns, rows, playerPos, direction);
+            return;
+        }
+        if (stale || line != shownTop || columns != shownColumns || rows != shownRows || left != shownLeft || top != shownTopRow) {
+            if (shown.length < columns*rows*3) shown = new char[columns*rows*3];
+            shownColumns = columns;
+            shownRows = rows;
+            shownLeft = left;
+            shownTopRow = top;
+            shownTop = line;
+            drawBoard(board, left, top, columns, rows, playerPos, direction);
+            stale = false;
+        }
+        else {
+            Animation over = overlay(left, top, columns, rows);
+            cursorLine = cursorColumn = -1;
+            for (int row = 0; row < rows; row++) {
+                long seen = 0;
+                for (int col = 0; col < columns; col++) {
+                    if ((col & 63) == 0) seen = seen(left+col, top+row);
+                    glyph(board, over, left, top, col, row, (seen >>> (col & 63) & 1) == 0, playerPos, direction);
+                    put(col, row);
+                }
+            }
+            frame.append(ESC).append(shownTop+2+rows*2).append(";1H");
+        }
+        line = shownTop+2+rows*2;
+        frame.append(ESC).append("J"); // Erase the prompts left under the last frame.
+    }
+
+    // Queues redrawing only the cells the animation changed since its last frame was drawn, leaving the cursor where it is.
+    // ANSI mode only. Returns false if the board on screen is not the view the animation covers; draw it with board() then.
+    public boolean cells(Board board, int[] playerPos, int direction) {
+        Animation over = animation;
+        if (!ansi || stale || over == null || over.columns != shownColumns || over.rows != shownRows || over.left != shownLeft || over.top != shownTopRow) {
+            return false;
+        }
+        frame.append(SAVE_CURSOR);
+        cursorLine = cursorColumn = -1;
+        for (int i = 0; i < over.changes(); i++) {
+            int row = over.changed(i)/over.columns, col = over.changed(i)-row*over.columns;
+            boolean hidden = fog != null && !fog.seen(over.left+col, over.top+row);
+            glyph(board, over, over.left, over.top, col, row, hidden, playerPos, direction);
+            put(col, row);
+        }
+        frame.append(RESTORE_CURSOR);
+        return true;
+    }
+
+    // Writes everything queued with a single write.
+    public void flush() {
+        if (frame.length() == 0) return;
+        if (chars.length < frame.length()) {
+            chars = new char[Math.max(frame.length(), chars.length*2)];
+            charView = CharBuffer.wrap(chars);
+        }
+        frame.getChars(0, frame.length(), chars, 0);
+        charView.clear().limit(frame.length());
+        frame.setLength(0);
+
+        encoder.reset();
+        bytes.clear();
+        while (encoder.encode(charView, bytes, true).isOverflow()) grow();
+        while (encoder.flush(bytes).isOverflow()) grow();
+        try {
+            out.write(bytes.array(), 0, bytes.position());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Marks everything on screen as unknown, so the next board is drawn in full.
+    public void invalidate() {
+        stale = true;
+    }
+
+    // Doubles the byte buffer, keeping what is already encoded.
+    private void grow() {
+        ByteBuffer bigger = ByteBuffer.allocate(bytes.capacity()*2);
+        bytes.flip();
+        bytes = bigger.put(bytes);
+    }
+
+    // Appends the whole board, indicators included. In ANSI mode, also remembers it as what is on screen.
+    private void drawBoard(Board board, int left, int top, int columns, int rows, int[] playerPos, int direction) {
+        Animation over = overlay(left, top, columns, rows);
+        // Column (X) indicators
+        frame.append("      ");
+        for (int col = 0; col < columns; col++) pad(left+col, 3, true, TILE_WIDTH);
+        text("\n\n");
+
+        for (int row = 0; row < rows; row++) {
+            pad(top+row, 3, false, ROW_INDICATOR_WIDTH); // Row (Y) indicators
+            long seen = 0;
+            for (int col = 0; col < columns; col++) {
+                if ((col & 63) == 0) {
+                    seen = seen(left+col, top+row);
+                    if (seen == 0 && (over == null || over.covered(col, row) == 0)) { // Nothing seen here, not even the player.
+                        int end = Math.min(columns, col+64);
+                        fogSpan(row, col, end, columns);
+                        col = end-1;
+                        continue;
+                    }
+                }
+                glyph(board, over, left, top, col, row, (seen >>> (col & 63) & 1) == 0, playerPos, direction);
+                frame.append(cell, 0, 3).append("   "); // Buffer between tiles
+                if (ansi) System.arraycopy(cell, 0, shown, (row*columns+col)*3, 3);
+            }
+            text("\n\n");
+        }
+    }
+
+    // Which of the 64 tiles from ([col], [row]) rightwards can be shown, as in Fog.bits(). All of them without fog.
+    private long seen(int col, int row) {
+        return (fog == null) ? -1L : fog.bits(col, row);
+    }
+
+    // Appends fog for view columns [from] to [to] (exclusive) of view row [row], in a view [columns] wide.
+    private void fogSpan(int row, int from, int to, int columns) {
+        for (int col = from; col < to; col++) {
+            frame.append(Game.TILE_FOG).append("   ");
+            if (ansi) Game.TILE_FOG.getChars(0, 3, shown, (row*columns+col)*3);
+        }
+    }
+
+    // The animation if it covers the [columns] by [rows] view from ([left], [top]), else null.
+    private Animation overlay(int left, int top, int columns, int rows) {
+        Animation over = animation;
+        return (over != null && over.left == left && over.top == top && over.columns == columns && over.rows == rows) ? over : null;
+    }
+
+    // Writes the 3 characters shown at cell ([col], [row]) of the view from ([left], [top]) into cell.
+    // Whatever [over] covers it with comes first, then [hidden] draws fog (the player is always shown).
+    private void glyph(Board board, Animation over, int left, int top, int col, int row, boolean hidden, int[] playerPos, int direction) {
+        int x = left+col, y = top+row;
+        if (over != null && over.covers(col, row)) over.glyph(col, row, cell, 0);
+        else ((hidden) ? Game.TILE_FOG : board.types().glyph(board.get(x, y))).getChars(0, 3, cell, 0);
+        if (x == playerPos[0] && y == playerPos[1]) cell[1] = (direction >= 0 && direction < ARROWS.length) ? ARROWS[direction] : '?';
+    }
+
+    // Queues cell for view cell ([col], [row]) over what is on screen, unless it is there already. ANSI mode only.
+    private void put(int col, int row) {
+        int at = (row*shownColumns+col)*3;
+        if (cell[0] == shown[at] && cell[1] == shown[at+1] && cell[2] == shown[at+2]) return;
+        int screenLine = shownTop+2+row*2;
+        int screenColumn = ROW_INDICATOR_WIDTH+col*TILE_WIDTH+1;
+        if (screenLine != cursorLine || screenColumn != cursorColumn) {
+            frame.append(ESC).append(screenLine).append(';').append(screenColumn).append('H');
+        }
+        frame.append(cell, 0, 3);
+        System.arraycopy(cell, 0, shown, at, 3);
+        cursorLine = screenLine;
+        cursorColumn = screenColumn+3;
+    }
+
+    // Appends [number] padded with spaces to [width], on the left if [right] aligned (same as %3d / %-3d),
+    // then more spaces up to [cell] characters in all. Longer numbers eat into those spaces first.
+    private StringBuilder pad(int number, int width, boolean right, int cell) {
+        int digits = (number < 0) ? 2 : 1;
+        for (int rest = Math.abs(number/10); rest > 0; rest /= 10) digits++;
+        int written = Math.max(digits, width);
+        if (right) for (int i = digits; i < width; i++) frame.append(' ');
+        frame.append(number);
+        if (!right) for (int i = digits; i < width; i++) frame.append(' ');
+        for (int i = written; i < cell; i++) frame.append(' ');
+        return frame;
+    }
+}
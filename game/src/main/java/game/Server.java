@@ -0,0 +1,96 @@
+/**
+ * Serves games to telnet-style clients on localhost, one session per connection.
+ * Each connection gets its own Game, run on its own thread (virtual on Java 21+, see Threads),
+ * reading from and writing to the socket instead of System.in and System.out.
+ *
+ * Usage:
+ *      java -cp game/target/game-1.0-SNAPSHOT.jar game.Server [port] [leaderboard file]
+ *      telnet localhost 2323
+ */
+package game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+public class Server implements AutoCloseable {
+    public static final int DEFAULT_PORT = 2323;
+
+    private final ServerSocket socket;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong served = new AtomicLong();
+    public Leaderboard leaderboard; // Shared by every session, or null.
+
+    // Starts listening on localhost [port]; 0 picks any free port. Call serve() to start taking players.
+    public Server(int port) throws IOException {
+        socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+    }
+
+    public static void main(String[] args) {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try (Server server = new Server(port); Leaderboard leaderboard = (args.length > 1) ? Leaderboard.open(Paths.get(args[1])) : null) {
+            server.leaderboard = leaderboard;
+            System.out.printf("Serving games on localhost:%d (%s threads). Connect with: telnet localhost %d%n",
+                server.port(), (Threads.VIRTUAL) ? "virtual" : "platform", server.port());
+            server.serve();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The port being listened on.
+    public int port() {
+        return socket.getLocalPort();
+    }
+
+    // Sessions currently being played.
+    public int activeSessions() {
+        return active.get();
+    }
+
+    // Sessions started since the server started.
+    public long servedSessions() {
+        return served.get();
+    }
+
+    // Takes connections until the server is closed, starting a session for each. Blocks.
+    public void serve() {
+        while (!socket.isClosed()) {
+            Socket client;
+            try {
+                client = socket.accept();
+                client.setTcpNoDelay(true);
+            } catch (IOException e) {
+                if (socket.isClosed()) return; // Closed while waiting.
+                continue;
+            }
+            served.incrementAndGet();
+            active.incrementAndGet();
+            Threads.start("session-" + client.getPort(), () -> run(client));
+        }
+    }
+
+    // Plays one session over [client], then hangs up.
+    private void run(Socket client) {
+        try (client) {
+            Game game = new Game(client.getInputStream(), client.getOutputStream(), StandardCharsets.UTF_8, false);
+            game.leaderboard = leaderboard;
+            game.play();
+        } catch (IOException | NoSuchElementException e) {
+            // The player hung up.
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * Headless simulation of the bomb-finding game.
+ * Plays the same rules as Game (createBoard, getTarget, doAction) with a Strategy in place of a person,
+ * with no printing and no delays, and runs independent games in parallel on every core.
+ * Meant for tuning balance constants such as the starting moves and PINGs, and new kinds of tiles (see TileTypes).
+ * Boards are made like in Game: regenerated until the bomb can be reached within the move budget.
+ *
+ * Every game gets its own seed and SplittableRandom, derived from the run's seed and the game's number,
+ * so workers share no random state and a run gives the same results on any number of threads.
+ * A game's seed and start position can be played again in Game with --seed.
+ *
+ * Usage:
+ *      java -cp game/target/game-1.0-SNAPSHOT.jar game.Simulation [games] [strategy] [columns] [rows] [moves] [pings] [seed] [tiles file]
+ *      Strategies: RANDOM (random walk), ORACLE (knows where the bomb is and walks straight to it),
+ *                  SOLVER (plays from PINGs and the board, see Solver)
+ */
+package game;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+public class Simulation {
+    // A strategy that keeps asking for off-board moves is stuck; give up on the game after this many in a row.
+    public static final int MAX_REJECTED = 64;
+    // What State.turn() did.
+    public static final int ACTED = 0; // Moved or hit a tile, using a move.
+    public static final int PINGED = 1;
+    public static final int REJECTED = 2; // Off the board, or not an action.
+
+    // Picks actions for a simulated player. A new Strategy is made for every game, so it may keep state.
+    public interface Strategy {
+        // Returns the direction to act in, same as Game.direction (0 right, 1 up, 2 left, 3 down).
+        // May call game.ping() first; like [PING] in Game.getAction(), it does not use a move.
+        int getAction(State game);
+    }
+
+    // Walks in a random direction every turn and never PINGs.
+    public static final Supplier<Strategy> RANDOM = () -> game -> game.rng.nextInt(4);
+
+    // Cheats by reading the bomb position and walking straight to it. An upper bound for the other strategies.
+    public static final Supplier<Strategy> ORACLE = () -> game -> {
+        if (game.playerPos[0] < game.bombPos[0]) return 0;
+        if (game.playerPos[0] > game.bombPos[0]) return 2;
+        return (game.playerPos[1] < game.bombPos[1]) ? 3 : 1;
+    };
+
+    // Plays like the [HINT] command: a Solver that sees the board and its PING results, and learns from every action.
+    public static final Supplier<Strategy> SOLVER = () -> new Strategy() {
+        private Solver solver;
+        private int[] acted; // Tile of the last action, to learn what was under it.
+
+        @Override
+        public int getAction(State game) {
+            if (solver == null) solver = new Solver(game.board, game.columns, game.rows, game.playerPos, false);
+            else if (acted != null) solver.observe(acted[0], acted[1]);
+            int action;
+            while ((action = solver.next(game.playerPos, game.pingsLeft)) == Solver.PING) solver.ping(game.playerPos, game.ping());
+            acted = Game.getTarget(game.playerPos, action, game.columns, game.rows);
+            return action;
+        }
+    };
+
+    // State of a single simulated game.
+    public static class State {
+        public final int columns, rows;
+        public final long seed;
+        public final int[] start;
+        public final TileGrid board;
+        public final int[] playerPos, bombPos;
+        public int movesLeft, pingsLeft;
+        public final int optimalMoves;
+        public final SplittableRandom rng;
+
+        // Makes the same game as Game.game() with [seed], the player starting at [start].
+        public State(int columns, int rows, int moves, int pings, long seed, int[] start) {
+            this(TileTypes.DEFAULT, columns, rows, moves, pings, seed, start);
+        }
+
+        // Same as above, on a board of [types].
+        public State(TileTypes types, int columns, int rows, int moves, int pings, long seed, int[] start) {
+            this.columns = columns;
+            this.rows = rows;
+            this.seed = seed;
+            this.start = start.clone();
+            rng = new SplittableRandom(seed);
+            playerPos = start.clone();
+            bombPos = new int[2];
+            board = Game.createWinnableBoard(types, columns, rows, playerPos, bombPos, moves, rng);
+            optimalMoves = PathCost.minMoves(board, playerPos, bombPos);
+            movesLeft = (optimalMoves == PathCost.UNREACHABLE) ? moves : Math.max(moves, optimalMoves);
+            pingsLeft = pings;
+        }
+
+        // Same as [PING]. Returns the distance from the bomb, or NaN if out of PINGs.
+        public double ping() {
+            if (pingsLeft <= 0) return Double.NaN;
+            pingsLeft--;
+            return Math.hypot(bombPos[0]-playerPos[0], bombPos[1]-playerPos[1]);
+        }
+
+        public boolean bombFound() {
+            return Arrays.equals(playerPos, bombPos);
+        }
+
+        // Whether the game is over: the bomb is found or the moves ran out.
+        public boolean over() {
+            return bombFound() || movesLeft <= 0;
+        }
+
+        // Plays one turn by the rules of Game.game(). [action] is a direction (as Game.direction) or Journal.PING.
+        // Moving or hitting a tile uses a move; a PING and a move off the board don't. Returns ACTED, PINGED or REJECTED.
+        // Every headless player (Simulation, Batch, Journal replays) goes through here, so they can't drift apart.
+        public int turn(int action) {
+            if (action == Journal.PING) {
+                ping();
+                return PINGED;
+            }
+            int[] target = Game.getTarget(playerPos, action, columns, rows);
+            if (target == null) return REJECTED;
+            Game.doAction(board, playerPos, target, bombPos);
+            movesLeft--;
+            return ACTED;
+        }
+    }
+
+    // Totals over many games. Not thread safe; each worker fills its own and they are combined at the end.
+    public static class Stats {
+        public long games, wins, movesUsed, winMovesUsed, pingsUsed, optimalMoves;
+
+        public void add(State game, boolean won, int moves, int pings) {
+            boolean reachable = game.optimalMoves != PathCost.UNREACHABLE; // Walls can shut the bomb in.
+            if (reachable) moves = Math.max(moves, game.optimalMoves);
+            games++;
+            if (reachable) optimalMoves += game.optimalMoves;
+            movesUsed += moves-game.movesLeft;
+            pingsUsed += pings-game.pingsLeft;
+            if (won) {
+                wins++;
+                winMovesUsed += moves-game.movesLeft;
+            }
+        }
+
+        public void combine(Stats other) {
+            games += other.games;
+            wins += other.wins;
+            movesUsed += other.movesUsed;
+            winMovesUsed += other.winMovesUsed;
+            pingsUsed += other.pingsUsed;
+            optimalMoves += other.optimalMoves;
+        }
+
+        public double winRate() {
+            return (games == 0) ? 0 : (double) wins/games;
+        }
+    }
+
+    // Plays [game] to the end with [strategy]. Returns true if the bomb was found.
+    public static boolean play(State game, Strategy strategy) {
+        int rejected = 0;
+        while (!game.over()) {
+            if (game.turn(strategy.getAction(game)) != REJECTED) rejected = 0;
+            else if (++rejected >= MAX_REJECTED) break;
+        }
+        return game.bombFound();
+    }
+
+    // Plays [games] independent games in parallel on the common fork-join pool. Returns the combined totals.
+    // The results only depend on [seed], not on how the games are split between threads.
+    public static Stats simulate(long games, Supplier<Strategy> strategy, int columns, int rows, int moves, int pings, long seed) {
+        return simulate(TileTypes.DEFAULT, games, strategy, columns, rows, moves, pings, seed);
+    }
+
+    // Same as above, on boards of [types].
+    public static Stats simulate(TileTypes types, long games, Supplier<Strategy> strategy, int columns, int rows, int moves, int pings, long seed) {
+        return LongStream.range(0, games).parallel().collect(Stats::new, (stats, i) -> {
+            State game = newGame(types, columns, rows, moves, pings, seed, i);
+            stats.add(game, play(game, strategy.get()), moves, pings);
+        }, Stats::combine);
+    }
+
+    // Makes game number [index] of a run with [seed]. Picks its start position and its own seed.
+    public static State newGame(int columns, int rows, int moves, int pings, long seed, long index) {
+        return newGame(TileTypes.DEFAULT, columns, rows, moves, pings, seed, index);
+    }
+
+    // Same as above, on a board of [types].
+    public static State newGame(TileTypes types, int columns, int rows, int moves, int pings, long seed, long index) {
+        SplittableRandom game = new SplittableRandom(Game.mixSeed(seed+index*0x9E3779B97F4A7C15L));
+        int[] start = {game.nextInt(columns), game.nextInt(rows)};
+        return new State(types, columns, rows, moves, pings, game.nextLong(), start);
+    }
+
+    public static void main(String[] args) throws IOException {
+        long games = (args.length > 0) ? Long.parseLong(args[0]) : 1_000_000;
+        String name = (args.length > 1) ? args[1].toUpperCase() : "RANDOM";
+        int columns = (args.length > 2) ? Integer.parseInt(args[2]) : Game.BOARD_COLUMNS;
+        int rows = (args.length > 3) ? Integer.parseInt(args[3]) : Game.BOARD_ROWS;
+        int moves = (args.length > 4) ? Integer.parseInt(args[4]) : Game.startingMoves(columns, rows);
+        int pings = (args.length > 5) ? Integer.parseInt(args[5]) : Game.STARTING_PINGS;
+        long seed = (args.length > 6) ? Long.parseLong(args[6]) : new SplittableRandom().nextLong();
+        TileTypes types = (args.length > 7) ? TileTypes.read(Paths.get(args[7])) : TileTypes.DEFAULT;
+        Supplier<Strategy> strategy;
+        switch (name) {
+            case ("RANDOM"):
+                strategy = RANDOM;
+                break;
+            case ("ORACLE"):
+                strategy = ORACLE;
+                break;
+            case ("SOLVER"):
+                strategy = SOLVER;
+                break;
+            default:
+                System.out.println("Unknown strategy " + name + ". Try RANDOM, ORACLE or SOLVER.");
+                return;
+        }
+
+        long start = System.nanoTime();
+        Stats stats = simulate(types, games, strategy, columns, rows, moves, pings, seed);
+        double seconds = (System.nanoTime()-start)/1e9;
+
+        System.out.printf("Strategy: %s on %dx%d, %d moves, %d PINGs, seed %d%n", name, columns, rows, moves, pings, seed);
+        System.out.printf("Games: %d on %d threads%n", stats.games, Runtime.getRuntime().availableProcessors());
+        System.out.printf("Win rate: %.2f%%%n", stats.winRate()*100);
+        System.out.printf("Average moves used: %.2f (%.2f in wins)%n",
+            (double) stats.movesUsed/Math.max(1, stats.games), (double) stats.winMovesUsed/Math.max(1, stats.wins));
+        System.out.printf("Average PINGs used: %.2f%n", (double) stats.pingsUsed/Math.max(1, stats.games));
+        System.out.printf("Average fewest moves possible: %.2f%n", (double) stats.optimalMoves/Math.max(1, stats.games));
+        System.out.printf("Games per second: %.0f%n", stats.games/seconds);
+    }
+}
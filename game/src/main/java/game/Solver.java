@@ -0,0 +1,322 @@
+/**
+ * A bot that plays from what a player can know: the board, its own position and its PING results.
+ *
+ * Candidates: every tile the bomb could still be under, as a bitboard (bit row*columns+col). At the start of a game
+ * they are the STRONG tiles where placeBomb() puts the bomb. Broken tiles and PING results rule them out,
+ * a word at a time, skipping empty words. Costs and what breaks into what come from the board's TileTypes.
+ *
+ * PINGs: a PING splits the candidates by their distance from where it is made. Its expected cost is the number of
+ * candidates expected to be left, at CANDIDATE_COST moves each. The solver looks up to SEARCH_DEPTH moves ahead
+ * for the best tile to PING from, counting the moves to get there, and PINGs once that is where it stands.
+ * A move costs at least 1 and a PING at least CANDIDATE_COST, so tiles that can't beat the best so far are skipped.
+ * Many move orders reach the same tile, so evaluations are kept in a bounded transposition table. Its keys are a
+ * Zobrist hash of the candidates, updated as each one is ruled out, mixed with the tile and the depth left.
+ *
+ * Moves: with nothing to gain from a PING, it walks the cheapest path to the nearest candidate (Dial's algorithm,
+ * like PathCost, stopping at the first candidate). It keeps that path until the candidates change.
+ * The scratch arrays for this are made on the first walk: 12 bytes per tile, reused for the rest of the game.
+ *
+ * Plays grids with a single bomb. Game uses it for [HINT], Simulation for the SOLVER strategy.
+ */
+package game;
+
+import java.util.Arrays;
+public class Solver {
+    public static final int PING = Journal.PING; // Returned by next() for a PING.
+    public static final int SEARCH_DEPTH = 3; // Moves looked ahead for a better tile to PING from.
+    public static final int SEARCH_CANDIDATES = 512; // Only look ahead with this many candidates or fewer. Above, any PING rules out most.
+    public static final double CANDIDATE_COST = 2; // Moves to rule out one candidate: the average TileTypes.cost() of a tile to dig.
+    public static final int TABLE_BITS = 10; // Transposition table entries, as a power of 2. A search stores a few dozen.
+
+    private static final long POSITION_SALT = 0x9E3779B97F4A7C15L;
+    private static final long DEPTH_SALT = 0xC2B2AE3D27D4EB4FL;
+
+    public final Board board;
+    private final TileTypes types;
+    public final int columns, rows;
+    public long lookups, hits; // Transposition table use.
+    private final long[] candidates;
+    private int count;
+    private long hash; // Zobrist hash of [candidates].
+    private long[] tableKeys; // 0 for a free entry.
+    private double[] tableValues;
+    private long[] distances = new long[128]; // Scratch for pingCost(): a hash table of squared distances,
+    private int[] groups = new int[128]; // the candidates at each,
+    private int[] stamps = new int[128]; // and the pingCost() call that set each entry.
+    private int stamp;
+    private int[] dist, parent, visited; // Scratch for findPath(), see above.
+    private int generation; // Marks the entries of [visited] set by the current findPath().
+    private final int mask; // Buckets-1, same as PathCost.
+    private final int[][] buckets;
+    private final int[] sizes;
+    private int[] path = new int[64]; // Cells from the player to the nearest candidate.
+    private int pathLength, pathAt; // [pathAt] is the player's cell on the path.
+    private long pathHash; // [hash] when the path was found.
+
+    // Starts solving the single-bomb game on [board], a [columns] by [rows] grid, with the player at [player].
+    // Unless [midGame], only STRONG tiles can hold the bomb (see createBoard()). Mid-game, any that STRONG breaks into can too.
+    public Solver(Board board, int columns, int rows, int[] player, boolean midGame) {
+        this.board = board;
+        this.columns = columns;
+        this.rows = rows;
+        types = board.types();
+        mask = PathCost.buckets(types)-1;
+        buckets = new int[mask+1][64];
+        sizes = new int[mask+1];
+        candidates = new long[(int) (((long) columns*rows+63)/64)];
+        for (int row = 0; row < rows-Game.BOMB_MARGIN; row++) { // Where placeBomb() can put it.
+            for (int col = 0; col < columns-Game.BOMB_MARGIN; col++) {
+                int tile = board.get(col, row);
+                if (tile == TileGrid.BOMB) {
+                    keepOnly(row*columns+col);
+                    return;
+                }
+                if ((col == player[0] && row == player[1]) || !((midGame) ? types.holdsBomb(tile) : tile == TileGrid.STRONG)) continue;
+                add(row*columns+col);
+            }
+        }
+    }
+
+    // Tiles the bomb could still be under.
+    public int candidates() {
+        return count;
+    }
+
+    // Whether the bomb could be under ([col], [row]).
+    public boolean isCandidate(int col, int row) {
+        return isCandidate(row*columns+col);
+    }
+
+    // Learns from the tile at ([col], [row]) after it was acted on: a broken tile had no bomb, an exposed bomb is the one.
+    public void observe(int col, int row) {
+        int cell = row*columns+col;
+        int tile = board.get(col, row);
+        if (tile == TileGrid.BOMB) keepOnly(cell);
+        else if (types.passable(tile) && isCandidate(cell)) remove(cell);
+    }
+
+    // Learns from a PING made at [from] that found the bomb [distance] away. Ignores NaN (no PINGs left).
+    public void ping(int[] from, double distance) {
+        if (Double.isNaN(distance)) return;
+        long squared = Math.round(distance*distance); // Exact: hypot() of whole numbers.
+        for (int word = 0; word < candidates.length; word++) {
+            for (long bits = candidates[word]; bits != 0; bits &= bits-1) {
+                int cell = word*64+Long.numberOfTrailingZeros(bits);
+                long dx = cell%columns-from[0], dy = cell/columns-from[1];
+                if (dx*dx+dy*dy != squared) remove(cell);
+            }
+        }
+    }
+
+    // Picks the next action for a player at [player] with [pingsLeft] PINGs: a direction (as Game.direction), PING,
+    // or -1 if no tile can hold the bomb (the board doesn't follow the rules the solver knows).
+    public int next(int[] player, int pingsLeft) {
+        if (count == 0) return -1;
+        if (count > 1 && pingsLeft > 0) {
+            int depth = (count <= SEARCH_CANDIDATES) ? SEARCH_DEPTH : 0;
+            double best = pingCost(player[0], player[1]);
+            int action = PING;
+            long key = hash^positionKey(player[1]*columns+player[0]);
+            for (int direction = 0; direction < 4 && depth > 0; direction++) {
+                int[] next = Game.getTarget(player, direction, columns, rows);
+                if (next == null) continue;
+                int cost = types.cost(board.get(next[0], next[1]));
+                if (cost+CANDIDATE_COST >= best) continue; // Can't do better than what is already found.
+                int cell = next[1]*columns+next[0];
+                double value = cost+search(next[0], next[1], depth-1, key^positionKey(player[1]*columns+player[0])^positionKey(cell));
+                if (value < best) {
+                    best = value;
+                    action = direction;
+                }
+            }
+            if (best < count*CANDIDATE_COST) return action; // A PING here, or a few moves away, is worth it.
+        }
+        return walk(player);
+    }
+
+    // Lowest expected cost of a PING made from ([col], [row]) or from up to [depth] moves further, moves included.
+    // [key] is hash^positionKey() of the tile.
+    private double search(int col, int row, int depth, long key) {
+        if (tableKeys == null) {
+            tableKeys = new long[1 << TABLE_BITS];
+            tableValues = new double[1 << TABLE_BITS];
+        }
+        long entry = key^(depth*DEPTH_SALT);
+        if (entry == 0) entry = 1; // 0 marks a free entry.
+        int slot = (int) Game.mixSeed(entry) & ((1 << TABLE_BITS)-1);
+        lookups++;
+        if (tableKeys[slot] == entry) {
+            hits++;
+            return tableValues[slot];
+        }
+        double best = pingCost(col, row);
+        if (depth > 0) {
+            int cell = row*columns+col;
+            int[] from = {col, row};
+            for (int direction = 0; direction < 4; direction++) {
+                int[] next = Game.getTarget(from, direction, columns, rows);
+                if (next == null) continue;
+                int cost = types.cost(board.get(next[0], next[1]));
+                if (cost+CANDIDATE_COST >= best) continue;
+                int nextCell = next[1]*columns+next[0];
+                double value = cost+search(next[0], next[1], depth-1, key^positionKey(cell)^positionKey(nextCell));
+                best = Math.min(best, value);
+            }
+        }
+        tableKeys[slot] = entry; // Always replace: the newest search is the likeliest to be asked again.
+        tableValues[slot] = best;
+        return best;
+    }
+
+    // Expected cost left after a PING from ([col], [row]): the candidates expected to share the bomb's distance.
+    // Candidates are counted by squared distance in a hash table at most half full, in one pass: no sorting.
+    private double pingCost(int col, int row) {
+        if (distances.length < count*2) {
+            int length = Integer.highestOneBit(count*2-1) << 1;
+            distances = new long[length];
+            groups = new int[length];
+            stamps = new int[length];
+            stamp = 0;
+        }
+        if (++stamp == 0) { // Wrapped around: forget every old entry.
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        int mask = distances.length-1;
+        long sumOfSquares = 0;
+        for (int word = 0; word < candidates.length; word++) {
+            for (long bits = candidates[word]; bits != 0; bits &= bits-1) {
+                int cell = word*64+Long.numberOfTrailingZeros(bits);
+                long dx = cell%columns-col, dy = cell/columns-row;
+                long squared = dx*dx+dy*dy;
+                int slot = Long.hashCode(squared*0x9E3779B97F4A7C15L) & mask;
+                while (stamps[slot] == stamp && distances[slot] != squared) slot = (slot+1) & mask;
+                if (stamps[slot] != stamp) {
+                    stamps[slot] = stamp;
+                    distances[slot] = squared;
+                    groups[slot] = 0;
+                }
+                sumOfSquares += 2L*groups[slot]++ + 1; // (g+1)^2 - g^2.
+            }
+        }
+        return (double) sumOfSquares/count*CANDIDATE_COST; // The bomb is in a group of g with chance g/count.
+    }
+
+    // Next step on the cheapest path to the nearest candidate.
+    private int walk(int[] player) {
+        int cell = player[1]*columns+player[0];
+        if (pathHash != hash || pathLength == 0 || !followPath(cell)) {
+            if (!findPath(cell)) return -1;
+        }
+        int next = path[pathAt+1];
+        if (next == cell+1) return 0;
+        if (next == cell-columns) return 1;
+        if (next == cell-1) return 2;
+        return 3;
+    }
+
+    // Moves [pathAt] along to [cell]. Returns false if [cell] isn't where the path goes next.
+    private boolean followPath(int cell) {
+        if (path[pathAt] != cell) {
+            if (pathAt+1 >= pathLength || path[pathAt+1] != cell) return false;
+            pathAt++;
+        }
+        return pathAt+1 < pathLength;
+    }
+
+    // Finds the cheapest path from [source] to the nearest candidate into [path]. Returns false if there is none.
+    private boolean findPath(int source) {
+        if (dist == null) {
+            dist = new int[columns*rows];
+            parent = new int[columns*rows];
+            visited = new int[columns*rows];
+        }
+        if (++generation == 0) { // Wrapped around: forget every old mark.
+            Arrays.fill(visited, 0);
+            generation = 1;
+        }
+        Arrays.fill(sizes, 0);
+        visited[source] = generation;
+        dist[source] = 0;
+        parent[source] = -1;
+        buckets[0][sizes[0]++] = source;
+        long pending = 1;
+        int target = -1;
+        search:
+        for (int d = 0; pending > 0; d++) {
+            int b = d & mask;
+            while (sizes[b] > 0) {
+                int cell = buckets[b][--sizes[b]];
+                pending--;
+                if (dist[cell] != d) continue; // Already taken out with a smaller distance.
+                if (cell != source && isCandidate(cell)) {
+                    target = cell;
+                    break search;
+                }
+                int col = cell%columns, row = cell/columns;
+                if (col+1 < columns) pending += relax(cell, d, col+1, row);
+                if (row > 0) pending += relax(cell, d, col, row-1);
+                if (col > 0) pending += relax(cell, d, col-1, row);
+                if (row+1 < rows) pending += relax(cell, d, col, row+1);
+            }
+        }
+        if (target == -1) return false;
+        pathLength = 0;
+        for (int cell = target; cell != -1; cell = parent[cell]) pathLength++;
+        if (path.length < pathLength) path = new int[Math.max(pathLength, path.length*2)];
+        int at = pathLength;
+        for (int cell = target; cell != -1; cell = parent[cell]) path[--at] = cell;
+        pathAt = 0;
+        pathHash = hash;
+        return true;
+    }
+
+    // Offers the tile at ([col], [row]) a path through [from] of [d] moves plus its cost. Returns 1 if it was queued, 0 if not.
+    private int relax(int from, int d, int col, int row) {
+        int cell = row*columns+col;
+        int cost = types.cost(board.get(col, row));
+        if (cost == TileTypes.NEVER) return 0;
+        int next = d+cost;
+        if (visited[cell] == generation && next >= dist[cell]) return 0;
+        visited[cell] = generation;
+        dist[cell] = next;
+        parent[cell] = from;
+        int b = next & mask;
+        if (sizes[b] == buckets[b].length) buckets[b] = Arrays.copyOf(buckets[b], sizes[b]*2);
+        buckets[b][sizes[b]++] = cell;
+        return 1;
+    }
+
+    private boolean isCandidate(int cell) {
+        return (candidates[cell >>> 6] >>> (cell & 63) & 1) != 0;
+    }
+
+    private void add(int cell) {
+        candidates[cell >>> 6] |= 1L << (cell & 63);
+        hash ^= cellKey(cell);
+        count++;
+    }
+
+    private void remove(int cell) {
+        candidates[cell >>> 6] &= ~(1L << (cell & 63));
+        hash ^= cellKey(cell);
+        count--;
+    }
+
+    // Rules out every candidate but [cell].
+    private void keepOnly(int cell) {
+        Arrays.fill(candidates, 0);
+        count = 0;
+        hash = 0;
+        add(cell);
+    }
+
+    // Zobrist keys, made from the cell number instead of kept in a table as large as the board.
+    private static long cellKey(int cell) {
+        return Game.mixSeed(cell+1);
+    }
+
+    private static long positionKey(int cell) {
+        return Game.mixSeed(cell^POSITION_SALT);
+    }
+}
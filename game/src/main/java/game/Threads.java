@@ -0,0 +1,40 @@
+/**
+ * Starts the threads behind each session (the game loop, its input reader and its typewriter).
+ * Uses virtual threads when running on Java 21 or newer, so thousands of sessions stay cheap,
+ * and daemon platform threads on older Javas. Found by reflection, since the game is built for Java 17.
+ */
+package game;
+
+import java.util.concurrent.ThreadFactory;
+final class Threads {
+    private static final ThreadFactory FACTORY = factory();
+    public static final boolean VIRTUAL = !(FACTORY instanceof PlatformFactory);
+
+    private Threads() { }
+
+    // Starts [task] on a new thread called [name]. Returns the thread.
+    public static Thread start(String name, Runnable task) {
+        Thread thread = FACTORY.newThread(task);
+        thread.setName(name);
+        thread.start();
+        return thread;
+    }
+
+    private static ThreadFactory factory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) { // Before Java 21.
+            return new PlatformFactory();
+        }
+    }
+
+    private static class PlatformFactory implements ThreadFactory {
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
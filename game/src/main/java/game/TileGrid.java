@@ -0,0 +1,103 @@
+/**
+ * The game board, stored as 2 bits per tile packed into a long[].
+ * Replaces the old String[][] board: one reference and one string compare per tile became
+ * one quarter of a byte and an int compare, so boards of 10k x 10k (25 MB) and larger fit in memory.
+ * Grids of TileTypes with more than 4 ids pack 4 or 8 bits per tile instead.
+ *
+ * Built-in tiles (see TileTypes for the rest):
+ *      EMPTY  (   ): Can be moved into.
+ *      WEAK   (...): Becomes EMPTY when hit (or BOMB, if the bomb is under it).
+ *      STRONG (___): Becomes WEAK when hit.
+ *      BOMB   ( @ ): The bomb has been exposed. Can be moved into.
+ */
+package game;
+
+import java.nio.ByteBuffer;
+
+public class TileGrid implements Board {
+    public static final int EMPTY = 0;
+    public static final int WEAK = 1;
+    public static final int STRONG = 2;
+    public static final int BOMB = 3;
+
+    public final TileTypes types;
+    public final int columns, rows;
+    public final int bits, tilesPerWord; // Bits per tile, and tiles per long. Tile i of a word is its bits from i*bits up.
+    private final int bitShift, wordShift, mask; // log2 of bits and tilesPerWord, and the bits of one tile.
+    private final long[] tiles;
+
+    // Makes a [columns] by [rows] grid of EMPTY tiles of the DEFAULT types.
+    public TileGrid(int columns, int rows) {
+        this(TileTypes.DEFAULT, columns, rows);
+    }
+
+    // Makes a [columns] by [rows] grid of EMPTY tiles of [types].
+    public TileGrid(TileTypes types, int columns, int rows) {
+        if (columns <= 0 || rows <= 0) throw new IllegalArgumentException("Board must be at least 1x1, got " + columns + "x" + rows);
+        this.types = types;
+        bits = types.bits;
+        tilesPerWord = Long.SIZE/bits;
+        bitShift = Integer.numberOfTrailingZeros(bits);
+        wordShift = Integer.numberOfTrailingZeros(tilesPerWord);
+        mask = (1 << bits)-1;
+        long words = ((long) columns*rows+tilesPerWord-1)/tilesPerWord;
+        if (words > Integer.MAX_VALUE-8) throw new IllegalArgumentException("Board too large: " + columns + "x" + rows);
+        this.columns = columns;
+        this.rows = rows;
+        tiles = new long[(int) words];
+    }
+
+    // Gets the tile at ([col], [row]).
+    public int get(int col, int row) {
+        long index = (long) row*columns+col;
+        return (int) (tiles[(int) (index >>> wordShift)] >>> (((int) index & (tilesPerWord-1)) << bitShift)) & mask;
+    }
+
+    // Sets the tile at ([col], [row]) to [tile].
+    public void set(int col, int row, int tile) {
+        long index = (long) row*columns+col;
+        int word = (int) (index >>> wordShift);
+        int shift = ((int) index & (tilesPerWord-1)) << bitShift;
+        tiles[word] = (tiles[word] & ~((long) mask << shift)) | ((long) (tile & mask) << shift);
+    }
+
+    @Override
+    public TileTypes types() {
+        return types;
+    }
+
+    // Longs the tiles are packed in, row by row: tile ([col], [row]) is tile (row*columns+col) % tilesPerWord of word (row*columns+col) / tilesPerWord.
+    public int words() {
+        return tiles.length;
+    }
+
+    // Gets all tilesPerWord tiles packed in [word] at once.
+    public long word(int word) {
+        return tiles[word];
+    }
+
+    // Sets all tilesPerWord tiles packed in [word] at once. Threads may set different words at the same time.
+    public void setWord(int word, long bits) {
+        tiles[word] = bits;
+    }
+
+    // Whether ([col], [row]) is inside the grid.
+    public boolean contains(int col, int row) {
+        return col >= 0 && row >= 0 && col < columns && row < rows;
+    }
+
+    // Bytes used by the packed tiles, not counting the object headers.
+    public long sizeInBytes() {
+        return (long) tiles.length*Long.BYTES;
+    }
+
+    // Writes the packed tiles into [out]; sizeInBytes() of them.
+    void writeTo(ByteBuffer out) {
+        for (long word : tiles) out.putLong(word);
+    }
+
+    // Reads back tiles written by writeTo() from a grid of the same size and types.
+    void readFrom(ByteBuffer in) {
+        for (int i = 0; i < tiles.length; i++) tiles[i] = in.getLong();
+    }
+}
@@ -0,0 +1,250 @@
+/**
+ * What every kind of tile looks like, whether it can be entered, what a hit turns it into, what it costs to get
+ * through and how often boards are made of it. Boards store tile ids (see TileGrid), and everything about an id is
+ * in dense arrays indexed by it, so acting on a tile, drawing it and costing a path through it are a lookup each,
+ * however many types there are.
+ *
+ * Types are read from a file with one type per line (# starts a comment):
+ *      name  "glyph"  hits  passable  weight  breaksInto
+ * glyph:      the 3 characters it is drawn as.
+ * hits:       hits it takes to break, or 0 if it never breaks. Ignored for passable types.
+ *             A type that takes more hits gets one id per hit taken, all drawn the same.
+ * passable:   yes or no. The player moves into passable tiles, and hits the others.
+ * weight:     how often new boards are made of it, relative to the others. 0 for never.
+ * breaksInto: the type it becomes once broken, or - if it never breaks.
+ * EMPTY, WEAK, STRONG and BOMB always exist with the ids in TileGrid, and set as in DEFAULT_SPEC unless the file
+ * sets them. The player starts on EMPTY, bombs are placed under STRONG, and a tile breaking into a passable type
+ * while a bomb is under it becomes BOMB. Types are picked for new boards in the order of DEFAULT_SPEC, then the file.
+ */
+package game;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+public class TileTypes {
+    public static final int NEVER = Integer.MAX_VALUE; // cost() of a tile that can't be broken into a passable one.
+    public static final int MAX_IDS = 256; // 8 bits per tile.
+    public static final int MAX_WEIGHT = 1 << 16; // Of all types together.
+    public static final String DEFAULT_SPEC = String.join("\n",
+        "# name  glyph  hits  passable  weight  breaksInto",
+        "STRONG  \"___\"  1  no   1  WEAK",
+        "WEAK    \"...\"  1  no   1  EMPTY",
+        "EMPTY   \"   \"  0  yes  1  -",
+        "BOMB    \" @ \"  0  yes  0  -");
+    public static final TileTypes DEFAULT = parse("");
+
+    public final int ids; // Tile ids in use, counting one per hit taken by types that take more than one.
+    public final int bits; // Bits per tile in a packed grid: 2, 4 or 8.
+    public final int maxCost; // Largest cost() other than NEVER.
+    private final String[] names, glyphs;
+    private final boolean[] passable, holdsBomb;
+    private final int[] cost;
+    private final int[] hit; // Tile after a hit, at id*2, or id*2+1 with a bomb under it.
+    private final int[] picks; // Ids for new boards, each repeated as often as its weight.
+
+    // A line of a spec.
+    private static class Type {
+        final String name, glyph, breaksInto;
+        final int hits, weight;
+        final boolean passable;
+
+        Type(String name, String glyph, int hits, boolean passable, int weight, String breaksInto) {
+            this.name = name;
+            this.glyph = glyph;
+            this.hits = hits;
+            this.passable = passable;
+            this.weight = weight;
+            this.breaksInto = breaksInto;
+        }
+    }
+
+    // Reads the types in the file at [path]. See above for the format.
+    public static TileTypes read(Path path) throws IOException {
+        return parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    // Reads the types in [spec], on top of DEFAULT_SPEC. See above for the format.
+    public static TileTypes parse(String spec) {
+        Map<String, Type> types = new LinkedHashMap<>();
+        for (Type type : lines(DEFAULT_SPEC)) types.put(type.name, type);
+        for (Type type : lines(spec)) types.put(type.name, type); // Built-ins keep their place.
+        return new TileTypes(types);
+    }
+
+    private TileTypes(Map<String, Type> types) {
+        // Ids: the built-ins first, then the other types, then the extra ids of types taking more than one hit.
+        Map<String, Integer> first = new LinkedHashMap<>();
+        String[] builtIns = new String[4];
+        builtIns[TileGrid.EMPTY] = "EMPTY";
+        builtIns[TileGrid.WEAK] = "WEAK";
+        builtIns[TileGrid.STRONG] = "STRONG";
+        builtIns[TileGrid.BOMB] = "BOMB";
+        for (String name : builtIns) first.put(name, first.size());
+        for (String name : types.keySet()) first.putIfAbsent(name, first.size());
+        int count = first.size();
+        for (Type type : types.values()) {
+            if (!type.passable && type.hits > 1) count += type.hits-1;
+        }
+        if (count > MAX_IDS) throw new IllegalArgumentException("Too many tile ids: " + count + ", at most " + MAX_IDS);
+        ids = count;
+        names = new String[ids];
+        glyphs = new String[ids];
+        passable = new boolean[ids];
+        holdsBomb = new boolean[ids];
+        int[] next = new int[ids];
+        int extra = first.size();
+        for (Type type : types.values()) {
+            int id = first.get(type.name);
+            Integer broken = (type.breaksInto == null) ? null : first.get(type.breaksInto);
+            boolean breaks = !type.passable && type.hits > 0;
+            if (breaks && broken == null) throw new IllegalArgumentException("Tile " + type.name + " breaks into unknown tile " + type.breaksInto);
+            for (int left = (breaks) ? type.hits : 1; left > 0; left--) { // Hits left to break it.
+                names[id] = type.name;
+                glyphs[id] = type.glyph;
+                passable[id] = type.passable;
+                next[id] = (left > 1) ? extra++ : (breaks) ? broken : id;
+                id = next[id];
+            }
+        }
+
+        cost = new int[ids];
+        int max = 0;
+        for (int id = 0; id < ids; id++) {
+            cost[id] = enterCost(id, next);
+            if (cost[id] != NEVER) max = Math.max(max, cost[id]);
+        }
+        maxCost = max;
+        if (!passable[TileGrid.EMPTY] || !passable[TileGrid.BOMB]) throw new IllegalArgumentException("EMPTY and BOMB must be passable");
+        if (passable[TileGrid.STRONG] || cost[TileGrid.STRONG] == NEVER) throw new IllegalArgumentException("STRONG must break, since bombs are under it");
+        for (int id = TileGrid.STRONG; !passable[id]; id = next[id]) holdsBomb[id] = true;
+
+        hit = new int[ids*2];
+        for (int id = 0; id < ids; id++) {
+            hit[id*2] = next[id];
+            hit[id*2+1] = (next[id] != id && passable[next[id]]) ? TileGrid.BOMB : next[id];
+        }
+
+        long total = 0;
+        for (Type type : types.values()) total += type.weight;
+        if (total <= 0 || total > MAX_WEIGHT) throw new IllegalArgumentException("Tile weights must add up to 1 to " + MAX_WEIGHT + ", got " + total);
+        picks = new int[(int) total];
+        int at = 0;
+        for (Type type : types.values()) {
+            Arrays.fill(picks, at, at+type.weight, first.get(type.name));
+            at += type.weight;
+        }
+        int fit = 2;
+        while ((1 << fit) < ids) fit *= 2;
+        bits = fit;
+    }
+
+    // Moves to enter [id] from next to it: one per hit to break it into a passable tile, and one to step in.
+    private int enterCost(int id, int[] next) {
+        int moves = 1;
+        for (int steps = 0; !passable[id]; steps++) {
+            if (next[id] == id || steps == ids) return NEVER; // Never breaks, or only breaks into tiles that never break.
+            id = next[id];
+            moves++;
+        }
+        return moves;
+    }
+
+    // Name of the type of tile [id].
+    public String name(int id) {
+        return names[id];
+    }
+
+    // The 3 characters tile [id] is drawn as.
+    public String glyph(int id) {
+        return glyphs[id];
+    }
+
+    // Whether the player can move into tile [id].
+    public boolean passable(int id) {
+        return passable[id];
+    }
+
+    // Whether the bomb can be under tile [id]: STRONG, and what it breaks into until it can be entered.
+    public boolean holdsBomb(int id) {
+        return holdsBomb[id];
+    }
+
+    // Moves to get into tile [id] from next to it, breaking it first. NEVER if it can't be entered.
+    public int cost(int id) {
+        return cost[id];
+    }
+
+    // Tile [id] becomes after one hit. [bomb] is whether the bomb is under it.
+    public int hit(int id, boolean bomb) {
+        return hit[(id << 1) | ((bomb) ? 1 : 0)];
+    }
+
+    // Picks a tile for a new board by weight, with [rng].
+    public int randomTile(RandomGenerator rng) {
+        return picks[(int) (rng.nextDouble()*picks.length)];
+    }
+
+    // Picks a tile for a new board by weight, from 32 random bits in [random]: the high bits of weight times them.
+    public int randomTile(long random) {
+        return picks[(int) ((random & 0xFFFFFFFFL)*picks.length >>> 32)];
+    }
+
+    // Reads the types in [spec], one per line.
+    private static List<Type> lines(String spec) {
+        List<Type> types = new ArrayList<>();
+        int number = 0;
+        for (String line : spec.split("\n", -1)) {
+            number++;
+            List<String> fields = fields(line);
+            if (fields.isEmpty()) continue;
+            if (fields.size() != 6 || fields.get(1).length() != 3) {
+                throw new IllegalArgumentException("Line " + number + ": expected name \"glyph\" hits passable weight breaksInto, got " + line.trim());
+            }
+            int hits = LineReader.parseInt(fields.get(2)), weight = LineReader.parseInt(fields.get(4));
+            if (hits == LineReader.NOT_A_NUMBER || hits < 0 || weight == LineReader.NOT_A_NUMBER || weight < 0) {
+                throw new IllegalArgumentException("Line " + number + ": hits and weight must be numbers from 0, got " + line.trim());
+            }
+            String passable = fields.get(3).toLowerCase();
+            if (!passable.equals("yes") && !passable.equals("no")) throw new IllegalArgumentException("Line " + number + ": passable must be yes or no, got " + passable);
+            String breaksInto = fields.get(5).equals("-") ? null : fields.get(5);
+            types.add(new Type(fields.get(0), fields.get(1), hits, passable.equals("yes"), weight, breaksInto));
+        }
+        return types;
+    }
+
+    // Splits [line] at whitespace, keeping "quoted" fields whole (without the quotes), up to a # outside quotes.
+    private static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = null;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') quoted = false;
+                else field.append(c);
+            }
+            else if (c == '"') {
+                if (field == null) field = new StringBuilder();
+                quoted = true;
+            }
+            else if (c == '#') break;
+            else if (Character.isWhitespace(c)) {
+                if (field != null) fields.add(field.toString());
+                field = null;
+            }
+            else {
+                if (field == null) field = new StringBuilder();
+                field.append(c);
+            }
+        }
+        if (field != null) fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * A JFR event for one turn of a game, from drawing the board to the end of the action.
+ * Recorded with -Dgame.metrics=true while a flight recording is running (e.g. -XX:StartFlightRecording).
+ */
+package game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+@Name("game.Turn")
+@Label("Turn")
+@Category("Game")
+@Description("One turn of a game: drawing the board, waiting for the player's action and applying it")
+public class TurnEvent extends Event {
+    @Label("Seed")
+    public long seed;
+
+    @Label("Turn")
+    public int turn;
+
+    @Label("Action")
+    @Description("MOVE or HIT")
+    public String action;
+
+    @Label("Direction")
+    public int direction;
+
+    @Label("Moves Left")
+    public int movesLeft;
+
+    @Label("PINGs Left")
+    public int pingsLeft;
+}
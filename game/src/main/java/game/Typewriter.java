@@ -0,0 +1,275 @@
+/**
+ * Types text out to the console on its own thread, so the game never waits for the typing to finish.
+ * Messages are queued with how long to wait after each character, then written in timed batches
+ * (at most about 60 writes a second) instead of one console write per character.
+ * skip() writes everything already queued right away, dropping the waits.
+ * frame() waits on a fixed schedule instead, for animations: each frame is due a period after the last one,
+ * however long writing it took.
+ * run() queues work to do once everything before it is written, and mirror() gets a copy of the text as it is typed,
+ * so whatever follows the output (like spectators, see Broadcast) sees it at the same time as the player.
+ * With Metrics on, the time each message takes to type out (or each pause) goes into Metrics.PACING, but not the
+ * time run() actions take, and every byte written into Metrics.BYTES.
+ *
+ * Runs on its own thread from Threads, so a virtual thread where there are any. Locks are
+ * ReentrantLocks rather than synchronized, which would pin a virtual thread to its carrier while waiting.
+ */
+package game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+public class Typewriter {
+    private static final long BATCH_NANOS = 16_000_000;
+
+    // A queued message: text to type, bytes to write as they are, a pause, or work to run.
+    private static class Message {
+        final String text;
+        final byte[] bytes;
+        final long nanosPerChar, pauseNanos;
+        final boolean frame; // Pause until the next frame is due, rather than for pauseNanos from now.
+        final Runnable action;
+        long number;
+
+        Message(String text, byte[] bytes, long nanosPerChar, long pauseNanos, boolean frame, Runnable action) {
+            this.text = text;
+            this.bytes = bytes;
+            this.nanosPerChar = nanosPerChar;
+            this.pauseNanos = pauseNanos;
+            this.frame = frame;
+            this.action = action;
+        }
+    }
+
+    private final OutputStream out;
+    private final Writer writer;
+    private final ArrayDeque<Message> queue = new ArrayDeque<>();
+    private final Thread worker;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private long queued, written, skipThrough; // Message numbers, guarded by lock.
+    private long nextFrame; // When the last frame was due, on the worker thread.
+    private volatile Consumer<String> mirror; // Gets the text as it is typed, or null.
+    private boolean closed;
+
+    public Typewriter(OutputStream out, Charset charset) {
+        this.out = (Metrics.ENABLED) ? Metrics.counting(out) : out;
+        writer = new OutputStreamWriter(this.out, charset);
+        worker = Threads.start("typewriter", this::run);
+    }
+
+    // Queues [text], waiting [msPerChar] milliseconds after each character.
+    public void print(String text, int msPerChar) {
+        add(new Message(text, null, msPerChar*1_000_000L, 0, false, null));
+    }
+
+    // Queues waiting for [ms] milliseconds before the next message.
+    public void pause(int ms) {
+        add(new Message(null, null, 0, ms*1_000_000L, false, null));
+    }
+
+    // Queues waiting until [ms] milliseconds after the last frame was due, so frames keep a fixed rate.
+    // If the frames fell more than one behind (or this is the first), the schedule starts over from now.
+    public void frame(int ms) {
+        add(new Message(null, null, 0, ms*1_000_000L, true, null));
+    }
+
+    // Queues [action], run on the typewriter's thread once everything queued before it is written.
+    // An Executor for work that has to keep time with the output.
+    public void run(Runnable action) {
+        add(new Message(null, null, 0, 0, false, action));
+    }
+
+    // Passes every piece of text to [to] as it is typed out, on the typewriter's thread. Bytes from write() are not passed on.
+    public void mirror(Consumer<String> to) {
+        mirror = to;
+    }
+
+    // Queues [len] bytes of [bytes] from [off], written as they are with no waits. The bytes are copied.
+    public void write(byte[] bytes, int off, int len) {
+        byte[] copy = new byte[len];
+        System.arraycopy(bytes, off, copy, 0, len);
+        add(new Message(null, copy, 0, 0, false, null));
+    }
+
+    // An OutputStream that queues everything written to it. For the Renderer.
+    public OutputStream stream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                Typewriter.this.write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) {
+                Typewriter.this.write(bytes, off, len);
+            }
+        };
+    }
+
+    // Whether anything queued has not been written yet.
+    public boolean isBusy() {
+        lock.lock();
+        try {
+            return written < queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes out everything queued so far right away, skipping the waits.
+    public void skip() {
+        lock.lock();
+        try {
+            skipThrough = queued;
+        } finally {
+            lock.unlock();
+        }
+        LockSupport.unpark(worker);
+    }
+
+    // Waits until everything queued so far has been written.
+    public void awaitIdle() throws InterruptedException {
+        lock.lock();
+        try {
+            long last = queued;
+            while (written < last) changed.await();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for everything queued to be written, then stops the typewriter's thread. Nothing more can be queued.
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            changed.signalAll();
+            while (written < queued) changed.awaitUninterruptibly();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(Message message) {
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Typewriter is closed");
+            message.number = ++queued;
+            queue.add(message);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean skipped(Message message) {
+        lock.lock();
+        try {
+            return message.number <= skipThrough;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Message message;
+            lock.lock();
+            try {
+                while (queue.isEmpty()) {
+                    if (closed) return;
+                    changed.awaitUninterruptibly();
+                }
+                message = queue.poll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (Metrics.ENABLED && message.bytes == null && message.action == null) {
+                    long start = System.nanoTime();
+                    type(message);
+                    Metrics.PACING.record(System.nanoTime()-start);
+                }
+                else type(message);
+            } catch (IOException e) { // Nowhere left to write to. Drop this and skip through everything after it.
+                lock.lock();
+                try {
+                    skipThrough = Long.MAX_VALUE;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            lock.lock();
+            try {
+                written = message.number;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void type(Message message) throws IOException {
+        if (message.action != null) {
+            message.action.run();
+            return;
+        }
+        if (message.bytes != null) {
+            out.write(message.bytes);
+            out.flush();
+            return;
+        }
+        if (message.text == null && message.frame) {
+            long now = System.nanoTime();
+            nextFrame += message.pauseNanos;
+            if (nextFrame-now < -message.pauseNanos) nextFrame = now+message.pauseNanos;
+            waitUntil(nextFrame, message);
+            return;
+        }
+        if (message.text == null) {
+            waitUntil(System.nanoTime()+message.pauseNanos, message);
+            return;
+        }
+        String text = message.text;
+        if (message.nanosPerChar <= 0 || skipped(message)) {
+            writer.write(text);
+            writer.flush();
+            mirror(text, 0, text.length());
+            return;
+        }
+        long start = System.nanoTime();
+        int done = 0;
+        while (done < text.length()) {
+            // Characters that are due: the first right away, then one every nanosPerChar.
+            long due = (skipped(message)) ? text.length() : (System.nanoTime()-start)/message.nanosPerChar+1;
+            int upTo = (int) Math.min(text.length(), due);
+            if (upTo > done) {
+                writer.write(text, done, upTo-done);
+                writer.flush();
+                mirror(text, done, upTo);
+                done = upTo;
+            }
+            if (done < text.length()) waitUntil(Math.max(start+done*message.nanosPerChar, System.nanoTime()+BATCH_NANOS), message);
+        }
+        waitUntil(start+text.length()*message.nanosPerChar, message); // The wait after the last character.
+    }
+
+    // Passes the characters of [text] from [start] to [end] (exclusive) to the mirror, if there is one.
+    private void mirror(String text, int start, int end) {
+        Consumer<String> to = mirror;
+        if (to != null) to.accept((start == 0 && end == text.length()) ? text : text.substring(start, end));
+    }
+
+    // Waits until System.nanoTime() reaches [deadline], or [message] is skipped.
+    private void waitUntil(long deadline, Message message) {
+        long left;
+        while ((left = deadline-System.nanoTime()) > 0 && !skipped(message)) LockSupport.parkNanos(this, left);
+    }
+}
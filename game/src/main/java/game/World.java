@@ -0,0 +1,168 @@
+/**
+ * An endless board, made lazily in 32x32 chunks.
+ * A chunk's tiles only depend on the world seed and the chunk's coordinates, so a chunk is made the first time
+ * something looks at it and can be thrown away and made again later, as long as nothing in it changed.
+ *
+ * At most [cachedChunks] chunks are kept in memory, least recently used first out.
+ * A chunk with hit tiles (dirty) is spilled to a file in the spill directory when it leaves the cache,
+ * and read back instead of being made again. Memory stays the same however far the player goes.
+ */
+package game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+public class World implements Board, Closeable {
+    public static final int CHUNK_BITS = 5;
+    public static final int CHUNK_SIZE = 1 << CHUNK_BITS; // Tiles per side.
+    public static final int DEFAULT_CACHED_CHUNKS = 64; // 9x12 view + room to wander back: about 30 KB.
+
+    public final TileTypes types;
+    public final long seed;
+    public long generated, spilled, loaded; // Chunks made, written to disk and read back.
+    private final LinkedHashMap<Long, Chunk> chunks;
+    private Path spillDir; // Made on the first spill, unless given.
+    private final boolean ownsSpillDir;
+    private long lastKey; // The last chunk used, to skip the map lookup (and the boxing) for runs on the same chunk.
+    private Chunk last;
+
+    private static class Chunk {
+        final TileGrid tiles;
+        boolean dirty;
+
+        Chunk(TileTypes types) {
+            tiles = new TileGrid(types, CHUNK_SIZE, CHUNK_SIZE);
+        }
+    }
+
+    // Makes a world from [seed] keeping up to [cachedChunks] chunks in memory, spilling to [spillDir].
+    // A null [spillDir] uses a temporary directory, deleted by close().
+    public World(long seed, int cachedChunks, Path spillDir) {
+        this(TileTypes.DEFAULT, seed, cachedChunks, spillDir);
+    }
+
+    // Same as above, made of [types].
+    public World(TileTypes types, long seed, int cachedChunks, Path spillDir) {
+        if (cachedChunks < 1) throw new IllegalArgumentException("Need at least 1 cached chunk, got " + cachedChunks);
+        this.types = types;
+        this.seed = seed;
+        this.spillDir = spillDir;
+        ownsSpillDir = (spillDir == null);
+        chunks = new LinkedHashMap<>(cachedChunks*2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= cachedChunks) return false;
+                if (eldest.getValue() == last) last = null;
+                if (eldest.getValue().dirty) spill(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public int get(int col, int row) {
+        return chunk(col, row).tiles.get(col & (CHUNK_SIZE-1), row & (CHUNK_SIZE-1));
+    }
+
+    @Override
+    public void set(int col, int row, int tile) {
+        Chunk chunk = chunk(col, row);
+        chunk.tiles.set(col & (CHUNK_SIZE-1), row & (CHUNK_SIZE-1), tile);
+        chunk.dirty = true;
+    }
+
+    @Override
+    public TileTypes types() {
+        return types;
+    }
+
+    // Every tile is part of the world.
+    @Override
+    public boolean contains(int col, int row) {
+        return true;
+    }
+
+    // Chunks in memory right now.
+    public int cachedChunks() {
+        return chunks.size();
+    }
+
+    // Copies the [columns] by [rows] tiles from ([left], [top]) into a new TileGrid.
+    public TileGrid copy(int left, int top, int columns, int rows) {
+        TileGrid grid = new TileGrid(types, columns, rows);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) grid.set(col, row, get(left+col, top+row));
+        }
+        return grid;
+    }
+
+    // Deletes the spilled chunks, if they are in a temporary directory.
+    @Override
+    public void close() throws IOException {
+        chunks.clear();
+        last = null;
+        if (!ownsSpillDir || spillDir == null) return;
+        try (Stream<Path> files = Files.list(spillDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.delete(file);
+        }
+        Files.delete(spillDir);
+        spillDir = null;
+    }
+
+    // Gets the chunk holding ([col], [row]), reading or making it if it isn't in memory.
+    private Chunk chunk(int col, int row) {
+        long key = ((long) (col >> CHUNK_BITS) << 32) | ((row >> CHUNK_BITS) & 0xFFFFFFFFL);
+        if (last != null && key == lastKey) return last;
+        Chunk chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = load(key);
+            chunks.put(key, chunk);
+        }
+        lastKey = key;
+        last = chunk;
+        return chunk;
+    }
+
+    // Reads the chunk at [key] back from the spill directory, or makes it from the seed if it was never spilled.
+    private Chunk load(long key) {
+        Chunk chunk = new Chunk(types);
+        Path file = (spillDir == null) ? null : spillDir.resolve(Long.toHexString(key));
+        if (file != null && Files.exists(file)) {
+            try {
+                chunk.tiles.readFrom(ByteBuffer.wrap(Files.readAllBytes(file)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunk.dirty = true; // Not the same as a fresh one, so it must be spilled again.
+            loaded++;
+            return chunk;
+        }
+        SplittableRandom rng = new SplittableRandom(Game.mixSeed(seed^Game.mixSeed(key)));
+        for (int row = 0; row < CHUNK_SIZE; row++) {
+            for (int col = 0; col < CHUNK_SIZE; col++) chunk.tiles.set(col, row, types.randomTile(rng));
+        }
+        generated++;
+        return chunk;
+    }
+
+    // Writes [chunk] to the spill directory under [key].
+    private void spill(long key, Chunk chunk) {
+        try {
+            if (spillDir == null) spillDir = Files.createTempDirectory("world");
+            else Files.createDirectories(spillDir);
+            ByteBuffer bytes = ByteBuffer.allocate((int) chunk.tiles.sizeInBytes());
+            chunk.tiles.writeTo(bytes);
+            Files.write(spillDir.resolve(Long.toHexString(key)), bytes.array());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spilled++;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * A fixed script with a fixed seed through Batch.run(), checked line by line. The script mixes CRLF and LF,
+ * blank and unknown lines, starts given with signs, a number too big for an int, moves off the board,
+ * and a last game cut off by the end of the script with no newline.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+class BatchTest {
+    @Test
+    void fixedScriptGivesFixedResults() throws IOException {
+        String script = "3\r\n4\r\n  a \r\n\r\nhelp\r\nPiNg\r\na\r\na\r\n" + "w\r\n".repeat(10) // Game 1: west 3, north 10 to the bomb.
+            + "foo\n+0\n -1 \n" // Not a number, then the start: clamped to (0, 0).
+            + "w\na\n" + "d\n".repeat(7) + "s\n".repeat(20) // Game 2: two moves off the board, then to the bomb.
+            + "99999999999\n8\n11\nleft\nl eft\nw"; // Game 3: too big to be a start, then cut off.
+        String[] lines = run(script, 99);
+        assertEquals(4, lines.length);
+        assertEquals("game=1 seed=99 start=3,4 result=WON moves_left=23 pings_used=1 actions=13 rejected=0 ignored=2", lines[0]);
+        assertEquals("game=2 seed=4824385676517010403 start=0,0 result=WON moves_left=9 pings_used=0 actions=27 rejected=2 ignored=0", lines[1]);
+        assertEquals("game=3 seed=583982616703494564 start=8,11 result=UNFINISHED moves_left=33 pings_used=0 actions=3 rejected=0 ignored=0", lines[2]);
+        assertTrue(lines[3].matches("games=3 won=2 lost=0 unfinished=1 lines=56 millis=\\d+"), lines[3]);
+    }
+
+    @Test
+    void lostGameAndEmptyScript() throws IOException {
+        String[] lines = run("0\n11\n" + "a\nd\n".repeat(19), 99); // Back and forth until out of moves.
+        assertEquals("game=1 seed=99 start=0,11 result=LOST moves_left=0 pings_used=0 actions=36 rejected=2 ignored=0", lines[0]);
+        assertTrue(lines[1].matches("games=1 won=0 lost=1 unfinished=0 lines=40 millis=\\d+"), lines[1]);
+        lines = run("", 99);
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].matches("games=0 won=0 lost=0 unfinished=0 lines=0 millis=\\d+"), lines[0]);
+    }
+
+    // Runs [script] on default boards from [seed]. Returns the output lines.
+    private static String[] run(String script, long seed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Batch.run(new ByteArrayInputStream(script.getBytes(StandardCharsets.US_ASCII)), out, seed, Game.BOARD_COLUMNS, Game.BOARD_ROWS);
+        return out.toString(StandardCharsets.US_ASCII).split("\r?\n");
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Bombs against a plain list scanned from start to end, after random adds and removes, dense and sparse,
+ * and around negative coordinates like on an endless World. Also the edges of buckets below 0, and buckets
+ * removed from the table (which shifts the ones probed past them back) and added again.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+class BombsTest {
+    @Test
+    void denseMatchesLinearScan() {
+        compare(40, 2000, new SplittableRandom(1));
+    }
+
+    @Test
+    void sparseMatchesLinearScan() {
+        compare(5000, 200, new SplittableRandom(2));
+    }
+
+    @Test
+    void emptyHasNoNearest() {
+        Bombs bombs = new Bombs();
+        assertNull(bombs.nearest(0, 0));
+        assertTrue(Double.isNaN(bombs.nearestDistance(0, 0)));
+        bombs.add(3, 4);
+        assertEquals(5.0, bombs.nearestDistance(0, 0));
+        bombs.remove(3, 4);
+        assertNull(bombs.nearest(0, 0));
+    }
+
+    @Test
+    void negativeCoordinatesAcrossBucketEdge() {
+        // -1 and 0 are next to each other but in different buckets, as are -CELL_SIZE and -CELL_SIZE-1.
+        Bombs bombs = new Bombs();
+        bombs.add(-1, -1);
+        bombs.add(-Bombs.CELL_SIZE-1, 0);
+        assertTrue(bombs.contains(-1, -1));
+        assertTrue(bombs.contains(-Bombs.CELL_SIZE-1, 0));
+        assertFalse(bombs.contains(Bombs.CELL_SIZE-1, Bombs.CELL_SIZE-1)); // Same offset in the bucket, other bucket.
+        assertFalse(bombs.contains(-Bombs.CELL_SIZE, 0));
+        assertArrayEquals(new int[]{-1, -1}, bombs.nearest(0, 0));
+        assertArrayEquals(new int[]{-Bombs.CELL_SIZE-1, 0}, bombs.nearest(-Bombs.CELL_SIZE, 0));
+        assertEquals(Math.sqrt(2), bombs.nearestDistance(0, 0));
+    }
+
+    @Test
+    void reAddAfterRemovesThatShiftBuckets() {
+        // Enough buckets to collide in the table, removed in an order that shifts later ones back, then added again.
+        Bombs bombs = new Bombs();
+        List<int[]> all = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            int[] bomb = {i*Bombs.CELL_SIZE, -i*Bombs.CELL_SIZE};
+            all.add(bomb);
+            assertTrue(bombs.add(bomb[0], bomb[1]));
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = round; i < all.size(); i += 2) {
+                assertTrue(bombs.remove(all.get(i)[0], all.get(i)[1]));
+                assertFalse(bombs.remove(all.get(i)[0], all.get(i)[1]));
+            }
+            for (int i = 0; i < all.size(); i++) {
+                assertEquals((i-round)%2 != 0 || i < round, bombs.contains(all.get(i)[0], all.get(i)[1]), "Bomb " + i + ", round " + round);
+            }
+            for (int i = round; i < all.size(); i += 2) assertTrue(bombs.add(all.get(i)[0], all.get(i)[1]));
+            assertEquals(all.size(), bombs.size());
+            for (int[] bomb : all) assertArrayEquals(bomb, bombs.nearest(bomb[0], bomb[1]));
+        }
+    }
+
+    // Random edits to bombs within [spread] tiles of the origin, each followed by queries from random tiles.
+    private static void compare(int spread, int edits, SplittableRandom rng) {
+        Bombs bombs = new Bombs();
+        List<int[]> list = new ArrayList<>();
+        for (int i = 0; i < edits; i++) {
+            int col = rng.nextInt(-spread, spread), row = rng.nextInt(-spread, spread);
+            boolean there = indexOf(list, col, row) >= 0;
+            if (rng.nextInt(3) == 0) { // Remove one that is there most of the time.
+                if (!list.isEmpty() && rng.nextBoolean()) {
+                    int[] bomb = list.get(rng.nextInt(list.size()));
+                    col = bomb[0];
+                    row = bomb[1];
+                    there = true;
+                }
+                assertEquals(there, bombs.remove(col, row));
+                if (there) list.remove(indexOf(list, col, row));
+            }
+            else {
+                assertEquals(!there, bombs.add(col, row));
+                if (!there) list.add(new int[]{col, row});
+            }
+            assertEquals(list.size(), bombs.size());
+
+            for (int query = 0; query < 5; query++) {
+                int x = rng.nextInt(-2*spread, 2*spread), y = rng.nextInt(-2*spread, 2*spread);
+                assertEquals(indexOf(list, x, y) >= 0, bombs.contains(x, y));
+                int[] nearest = bombs.nearest(x, y);
+                if (list.isEmpty()) {
+                    assertNull(nearest);
+                    continue;
+                }
+                assertNotNull(nearest);
+                assertTrue(indexOf(list, nearest[0], nearest[1]) >= 0, "Not a bomb");
+                assertEquals(closest(list, x, y), squared(nearest, x, y), "Edit " + i + ", from (" + x + ", " + y + ")"); // Ties may pick either.
+            }
+        }
+    }
+
+    private static int indexOf(List<int[]> list, int col, int row) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i)[0] == col && list.get(i)[1] == row) return i;
+        }
+        return -1;
+    }
+
+    // Squared distance from ([col], [row]) to the closest bomb in [list].
+    private static long closest(List<int[]> list, int col, int row) {
+        long best = Long.MAX_VALUE;
+        for (int[] bomb : list) best = Math.min(best, squared(bomb, col, row));
+        return best;
+    }
+
+    private static long squared(int[] bomb, int col, int row) {
+        long dx = (long) bomb[0]-col, dy = (long) bomb[1]-row;
+        return dx*dx+dy*dy;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Commands.parse(), through all three overloads at once: every alias, case, whitespace anywhere, aliases sharing
+ * prefixes, empty and unknown input. Random input is also checked against the old toUpperCase().replaceAll()
+ * normalization looked up in a map of the aliases.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+class CommandsTest {
+    @Test
+    void everyAliasParses() {
+        for (int command = Commands.NORTH; command <= Commands.HINT; command++) {
+            for (String alias : Commands.aliases(command)) {
+                assertEquals(command, parse(alias), alias);
+                assertEquals(command, parse(alias.toLowerCase()), alias);
+            }
+        }
+    }
+
+    @Test
+    void foldsCaseAndSkipsWhitespace() {
+        assertEquals(Commands.PING, parse("PiNg"));
+        assertEquals(Commands.NORTH, parse("  up "));
+        assertEquals(Commands.PING, parse("Pi ng"));
+        assertEquals(Commands.DEBUG, parse("\tdebug mode\r\n"));
+        assertEquals(Commands.YES, parse("\u000B\fy"));
+    }
+
+    @Test
+    void sharedPrefixes() {
+        assertEquals(Commands.EAST, parse("D"));
+        assertEquals(Commands.SOUTH, parse("DOWN"));
+        assertEquals(Commands.DEBUG, parse("DEBUG"));
+        assertEquals(Commands.DEBUG, parse("DEBUGMODE"));
+        assertEquals(Commands.UNKNOWN, parse("DE"));
+        assertEquals(Commands.UNKNOWN, parse("DEBUGM"));
+        assertEquals(Commands.UNKNOWN, parse("DEBUGMODES"));
+        assertEquals(Commands.UNDO, parse("U"));
+        assertEquals(Commands.NORTH, parse("UP"));
+        assertEquals(Commands.UNKNOWN, parse("UN"));
+        assertEquals(Commands.HINT, parse("H"));
+        assertEquals(Commands.HELP, parse("HELP"));
+        assertEquals(Commands.UNKNOWN, parse("HE"));
+        assertEquals(Commands.UNKNOWN, parse("HINTS"));
+    }
+
+    @Test
+    void emptyAndUnknown() {
+        assertEquals(Commands.UNKNOWN, parse(""));
+        assertEquals(Commands.UNKNOWN, parse("   \t"));
+        assertEquals(Commands.UNKNOWN, parse("xyz"));
+        assertEquals(Commands.UNKNOWN, parse("N0"));
+        assertEquals(Commands.UNKNOWN, parse("W-"));
+        assertEquals(Commands.UNKNOWN, parse("É"));
+        assertEquals(Commands.UNKNOWN, parse("[W]"));
+    }
+
+    @Test
+    void randomInputMatchesLegacyNormalize() {
+        Map<String, Integer> legacy = new HashMap<>();
+        for (int command = Commands.NORTH; command <= Commands.HINT; command++) {
+            for (String alias : Commands.aliases(command)) legacy.put(alias, command);
+        }
+        String alphabet = "wasdupingWASDUPINGhelbyoxrt \t";
+        SplittableRandom rng = new SplittableRandom(1);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder line = new StringBuilder();
+            for (int length = rng.nextInt(8); length > 0; length--) line.append(alphabet.charAt(rng.nextInt(alphabet.length())));
+            String input = line.toString();
+            assertEquals(legacy.getOrDefault(input.toUpperCase().replaceAll("\\s", ""), Commands.UNKNOWN), parse(input), "\"" + input + "\"");
+        }
+    }
+
+    // Parses [input] as a CharSequence, as chars and as bytes, each from the middle of a larger array,
+    // and checks that all three agree.
+    private static int parse(String input) {
+        int command = Commands.parse(input);
+        char[] chars = ("ping" + input + "help").toCharArray();
+        assertEquals(command, Commands.parse(chars, 4, input.length()), "chars of \"" + input + "\"");
+        byte[] padded = ("ping" + input + "help").getBytes(StandardCharsets.UTF_8);
+        int length = input.getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(command, Commands.parse(padded, 4, length), "bytes of \"" + input + "\"");
+        return command;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Fog against a plain set of every tile within the radius of each place revealed from, on a grid and on an
+ * endless board: seen(), the revealed count, and bits() read from any column, across block edges and below 0.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+class FogTest {
+    private static final int BLOCK = Fog.BLOCK;
+
+    @Test
+    void gridMatchesBruteForce() {
+        for (int radius : new int[]{0, 1, 3, 7, 40}) {
+            int columns = 2*BLOCK+17, rows = BLOCK+9;
+            check(new Fog(radius, columns, rows), radius, 0, 0, columns, rows, new SplittableRandom(radius));
+        }
+    }
+
+    @Test
+    void worldMatchesBruteForce() {
+        for (int radius : new int[]{0, 1, 3, 7, 40}) {
+            check(new Fog(radius), radius, -2*BLOCK, -2*BLOCK, 2*BLOCK, 2*BLOCK, new SplittableRandom(radius+100));
+        }
+    }
+
+    @Test
+    void negativeRadius() {
+        assertThrows(IllegalArgumentException.class, () -> new Fog(-1));
+    }
+
+    // Reveals around random places from ([left], [top]) up to ([right], [bottom]), and also just outside them, then
+    // checks [fog] against the tiles within [radius] of each. Tiles out of the range only count on an endless board.
+    private static void check(Fog fog, int radius, int left, int top, int right, int bottom, SplittableRandom rng) {
+        boolean bounded = left == 0 && top == 0;
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 60; i++) {
+            int col = rng.nextInt(left-3, right+3), row = rng.nextInt(top-3, bottom+3);
+            if (bounded && (col < 0 || row < 0 || col >= right || row >= bottom)) continue; // The player is always on the grid.
+            fog.reveal(col, row);
+            for (int dy = -radius; dy <= radius; dy++) {
+                for (int dx = -radius; dx <= radius; dx++) {
+                    int x = col+dx, y = row+dy;
+                    if (dx*dx+dy*dy > radius*radius) continue;
+                    if (bounded && (x < 0 || y < 0 || x >= right || y >= bottom)) continue;
+                    seen.add(key(x, y));
+                }
+            }
+            assertEquals(seen.size(), fog.revealed, "Revealed after " + (i+1) + " moves, radius " + radius);
+        }
+        int margin = radius+BLOCK; // Past anything revealed, into blocks never made.
+        for (int row = top-margin; row < bottom+margin; row++) {
+            for (int col = left-margin; col < right+margin; col++) {
+                assertEquals(seen.contains(key(col, row)), fog.seen(col, row), "Tile (" + col + ", " + row + "), radius " + radius);
+            }
+            for (int col = left-margin; col < right+margin; col += 1+rng.nextInt(BLOCK)) {
+                long expected = 0;
+                for (int i = 0; i < 64; i++) {
+                    if (seen.contains(key(col+i, row))) expected |= 1L << i;
+                }
+                assertEquals(expected, fog.bits(col, row), "Bits from (" + col + ", " + row + "), radius " + radius);
+            }
+        }
+    }
+
+    private static long key(int col, int row) {
+        return ((long) col << 32) | (row & 0xFFFFFFFFL);
+    }
+}
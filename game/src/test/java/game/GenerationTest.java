@@ -0,0 +1,82 @@
+/**
+ * Boards of PARALLEL_TILES or more, made in stripes on pools of different sizes, word for word against each other
+ * and against the stripes filled one after another on this thread, as FillStripes documents them.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+class GenerationTest {
+    // 264195 tiles: 2 full stripes and a short one, ending in a part word.
+    private static final int COLUMNS = 515, ROWS = 513;
+    private static final long SEED = 42;
+
+    @Test
+    void sameWordsOnAnyPool() {
+        ForkJoinPool one = new ForkJoinPool(1), four = new ForkJoinPool(4);
+        try {
+            TileGrid first = create(one), second = create(four);
+            assertTrue((long) COLUMNS*ROWS >= Game.PARALLEL_TILES);
+            assertEquals(3, (first.words()+Game.STRIPE_WORDS-1)/Game.STRIPE_WORDS);
+            for (int word = 0; word < first.words(); word++) assertEquals(first.word(word), second.word(word), "Word " + word);
+            assertEquals(first.word(0), create(ForkJoinPool.commonPool()).word(0));
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test
+    void stripesMatchSequentialFill() {
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            TileGrid board = create(four), expected = sequential();
+            for (int word = 0; word < board.words(); word++) assertEquals(expected.word(word), board.word(word), "Word " + word);
+            // Either side of each boundary comes from a different stream, so the words there differ.
+            for (int boundary = Game.STRIPE_WORDS; boundary < board.words(); boundary += Game.STRIPE_WORDS) {
+                assertTrue(board.word(boundary-1) != board.word(boundary), "Stripe boundary at word " + boundary);
+            }
+            long tiles = (long) COLUMNS*ROWS, last = board.word(board.words()-1);
+            assertEquals(0, last >>> ((tiles%board.tilesPerWord)*board.bits)); // Nothing past the last tile.
+        } finally {
+            four.shutdown();
+        }
+    }
+
+    private static TileGrid create(ForkJoinPool pool) {
+        SplittableRandom rng = new SplittableRandom(SEED);
+        return Game.createBoard(COLUMNS, ROWS, player(), bomb(), rng, pool);
+    }
+
+    // The same board, each stripe from its own stream seeded by its number, filled in order on this thread.
+    private static TileGrid sequential() {
+        TileGrid board = new TileGrid(COLUMNS, ROWS);
+        long seed = new SplittableRandom(SEED).nextLong(), tiles = (long) COLUMNS*ROWS;
+        for (int stripe = 0; stripe*Game.STRIPE_WORDS < board.words(); stripe++) {
+            SplittableRandom rng = new SplittableRandom(Game.mixSeed(seed^Game.mixSeed(stripe)));
+            for (int word = stripe*Game.STRIPE_WORDS; word < Math.min(board.words(), (stripe+1)*Game.STRIPE_WORDS); word++) {
+                for (int i = 0; i < board.tilesPerWord && (long) word*board.tilesPerWord+i < tiles; i += 2) {
+                    long random = rng.nextLong(); // Two tiles from each: the low 32 bits, then the high.
+                    long index = (long) word*board.tilesPerWord+i;
+                    board.set((int) (index%COLUMNS), (int) (index/COLUMNS), board.types.randomTile(random));
+                    if (index+1 < tiles) board.set((int) ((index+1)%COLUMNS), (int) ((index+1)/COLUMNS), board.types.randomTile(random >>> 32));
+                }
+            }
+        }
+        board.set(player()[0], player()[1], TileGrid.EMPTY);
+        board.set(bomb()[0], bomb()[1], TileGrid.STRONG);
+        return board;
+    }
+
+    private static int[] player() {
+        return new int[]{COLUMNS/2, ROWS/2};
+    }
+
+    private static int[] bomb() {
+        return new int[]{7, Game.STRIPE_WORDS*32/COLUMNS}; // On the row where the second stripe starts, at 32 tiles a word.
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Journals written, read back and replayed: a finished game replays to the same State, an interrupted one can be
+ * resumed (dropping whatever was left past what was read), and the result byte is never confused with an action.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+class JournalTest {
+    private static final int COLUMNS = 15, ROWS = 10, MOVES = 60, PINGS = 5;
+    private static final long SEED = 1234;
+    private static final int[] START = {3, 4};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void finishedGameReplaysToSameState() throws IOException {
+        Simulation.State game = newGame();
+        Path path;
+        try (Journal journal = create()) {
+            path = journal.path;
+            play(game, journal, Integer.MAX_VALUE);
+            journal.finish((game.bombFound()) ? Journal.WON : Journal.LOST);
+        }
+        Journal.Entry entry = Journal.read(path);
+        assertEquals(SEED, entry.seed);
+        assertEquals(COLUMNS, entry.columns);
+        assertEquals(ROWS, entry.rows);
+        assertEquals(MOVES, entry.moves);
+        assertEquals(PINGS, entry.pings);
+        assertArrayEquals(START, entry.start);
+        assertEquals((game.bombFound()) ? Journal.WON : Journal.LOST, entry.result);
+        assertSameState(game, Journal.replay(entry));
+    }
+
+    @Test
+    void interruptedGameResumes() throws IOException {
+        Simulation.State game = newGame();
+        Path path;
+        int played;
+        try (Journal journal = create()) {
+            path = journal.path;
+            played = play(game, journal, 7);
+        }
+        Journal.Entry unfinished = Journal.read(path);
+        assertEquals(-1, unfinished.result);
+        assertEquals(played, unfinished.actions.length);
+        assertSameState(game, Journal.replay(unfinished));
+
+        // Records torn off after the read, like a write cut short by a crash: resuming drops them.
+        Files.write(path, new byte[]{0, 1, 2}, StandardOpenOption.APPEND);
+        try (Journal journal = Journal.append(unfinished)) {
+            play(game, journal, Integer.MAX_VALUE);
+            journal.finish((game.bombFound()) ? Journal.WON : Journal.LOST);
+        }
+        Journal.Entry finished = Journal.read(path);
+        assertTrue(finished.result == Journal.WON || finished.result == Journal.LOST);
+        assertArrayEquals(unfinished.actions, Arrays.copyOf(finished.actions, played));
+        assertSameState(game, Journal.replay(finished));
+        assertThrows(IllegalArgumentException.class, () -> Journal.append(finished));
+    }
+
+    @Test
+    void resultIsNeverAnAction() throws IOException {
+        Path path;
+        try (Journal journal = create()) {
+            path = journal.path;
+            assertThrows(IllegalArgumentException.class, () -> journal.record(Journal.WON));
+            assertThrows(IllegalArgumentException.class, () -> journal.record(Journal.LOST));
+            assertThrows(IllegalArgumentException.class, () -> journal.record(-1));
+            assertThrows(IllegalArgumentException.class, () -> journal.finish(Journal.PING));
+            journal.record(0);
+            journal.record(Journal.PING); // The last byte of an unfinished journal, and not a result.
+        }
+        Journal.Entry entry = Journal.read(path);
+        assertEquals(-1, entry.result);
+        assertArrayEquals(new byte[]{0, Journal.PING}, entry.actions);
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[Journal.HEADER_BYTES] = Journal.LOST; // A result before the end can only be damage.
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> Journal.read(path));
+    }
+
+    @Test
+    void tornHeaderIsNotAJournal() throws IOException {
+        Path path;
+        try (Journal journal = create()) {
+            path = journal.path;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        assertEquals(Journal.HEADER_BYTES, bytes.length);
+        Files.write(path, Arrays.copyOf(bytes, Journal.HEADER_BYTES-1));
+        assertThrows(IOException.class, () -> Journal.read(path));
+    }
+
+    private static Simulation.State newGame() {
+        return new Simulation.State(COLUMNS, ROWS, MOVES, PINGS, SEED, START);
+    }
+
+    private Journal create() throws IOException {
+        return Journal.create(dir, SEED, COLUMNS, ROWS, MOVES, PINGS, START);
+    }
+
+    // Plays up to [turns] turns of [game] like ORACLE, with a PING every third turn, journaling each. Returns the turns played.
+    private static int play(Simulation.State game, Journal journal, int turns) {
+        Simulation.Strategy oracle = Simulation.ORACLE.get();
+        int played = 0;
+        for (; played < turns && !game.over(); played++) {
+            int action = (played%3 == 2 && game.pingsLeft > 0) ? Journal.PING : oracle.getAction(game);
+            game.turn(action);
+            journal.record(action);
+        }
+        return played;
+    }
+
+    private static void assertSameState(Simulation.State expected, Simulation.State actual) {
+        assertArrayEquals(expected.playerPos, actual.playerPos);
+        assertArrayEquals(expected.bombPos, actual.bombPos);
+        assertEquals(expected.movesLeft, actual.movesLeft);
+        assertEquals(expected.pingsLeft, actual.pingsLeft);
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLUMNS; col++) assertEquals(expected.board.get(col, row), actual.board.get(col, row), "Tile (" + col + ", " + row + ")");
+        }
+    }
+}
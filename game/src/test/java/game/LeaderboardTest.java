@@ -0,0 +1,116 @@
+/**
+ * Leaderboard indexes against sorted copies of everything appended: the fastest wins per board size (ties going
+ * to the earlier game), ranks, and percentiles over the last games, before and after the file is opened again,
+ * including after a torn record at the end.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+class LeaderboardTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void fastestWinsAndRanksMatchSortedCopy() throws IOException {
+        Path path = dir.resolve("leaderboard.dat");
+        List<Leaderboard.Record> all = new ArrayList<>();
+        try (Leaderboard board = Leaderboard.open(path)) {
+            append(board, all, 3000, new SplittableRandom(1));
+            check(board, all);
+        }
+        try (Leaderboard board = Leaderboard.open(path)) { // Indexes rebuilt from the file.
+            check(board, all);
+        }
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        Path path = dir.resolve("leaderboard.dat");
+        List<Leaderboard.Record> all = new ArrayList<>();
+        try (Leaderboard board = Leaderboard.open(path)) {
+            append(board, all, 100, new SplittableRandom(2));
+        }
+        Files.write(path, new byte[Leaderboard.RECORD_BYTES/2], StandardOpenOption.APPEND); // Half a record, as if a crash cut it short.
+        try (Leaderboard board = Leaderboard.open(path)) {
+            assertEquals(all.size(), board.size());
+            assertEquals(Leaderboard.HEADER_BYTES+(long) all.size()*Leaderboard.RECORD_BYTES, Files.size(path));
+            append(board, all, 10, new SplittableRandom(3));
+            assertEquals(all.size()-1, all.get(all.size()-1).id);
+            check(board, all);
+        }
+    }
+
+    @Test
+    void notALeaderboard() throws IOException {
+        Path path = dir.resolve("other.dat");
+        Files.write(path, new byte[Leaderboard.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> Leaderboard.open(path));
+    }
+
+    @Test
+    void idsPastKeyRangeNeverRank() throws IOException {
+        try (Leaderboard board = Leaderboard.open(dir.resolve("leaderboard.dat"))) {
+            Leaderboard.Record win = new Leaderboard.Record(0, 0, 1000, 9, 12, 5, 0, 1, true);
+            board.append(win);
+            assertEquals(1, board.rank(9, 12, 1000, win.id));
+            assertEquals(-1, board.rank(9, 12, 1000, win.id+Leaderboard.MAX_RECORDS)); // Would be the same key if packed unchecked.
+            assertEquals(-1, board.rank(9, 12, 1000, -1));
+        }
+    }
+
+    // Appends [count] random games on two board sizes, with times from a small range so there are many ties.
+    private static void append(Leaderboard board, List<Leaderboard.Record> all, int count, SplittableRandom rng) throws IOException {
+        for (int i = 0; i < count; i++) {
+            boolean small = rng.nextInt(4) != 0;
+            Leaderboard.Record record = new Leaderboard.Record(rng.nextLong(), rng.nextLong(), rng.nextInt(500), (small) ? 9 : 20, (small) ? 12 : 20,
+                rng.nextInt(30), rng.nextInt(5), 1, rng.nextInt(3) != 0);
+            assertEquals(all.size(), board.append(record));
+            all.add(record);
+        }
+    }
+
+    private static void check(Leaderboard board, List<Leaderboard.Record> all) throws IOException {
+        assertEquals(all.size(), board.size());
+        for (int[] size : new int[][]{{9, 12}, {20, 20}, {5, 5}}) {
+            List<Leaderboard.Record> wins = new ArrayList<>();
+            for (Leaderboard.Record record : all) {
+                if (record.won && record.columns == size[0] && record.rows == size[1]) wins.add(record);
+            }
+            wins.sort(Comparator.comparingInt((Leaderboard.Record record) -> record.millis).thenComparingLong(record -> record.id));
+            List<Leaderboard.Record> top = board.fastestWins(size[0], size[1], Leaderboard.TOP_CAPACITY);
+            assertEquals(Math.min(wins.size(), Leaderboard.TOP_CAPACITY), top.size());
+            for (int i = 0; i < top.size(); i++) {
+                Leaderboard.Record expected = wins.get(i);
+                assertEquals(expected.id, top.get(i).id, "Place " + (i+1));
+                assertEquals(expected.millis, top.get(i).millis);
+                assertEquals(expected.seed, top.get(i).seed);
+                assertEquals(i+1, board.rank(size[0], size[1], expected.millis, expected.id));
+            }
+            for (int i = top.size(); i < wins.size(); i++) assertEquals(-1, board.rank(size[0], size[1], wins.get(i).millis, wins.get(i).id));
+            assertEquals(Math.min(3, top.size()), board.fastestWins(size[0], size[1], 3).size());
+        }
+        for (int games : new int[]{1, 10, 100, all.size(), all.size()+5}) {
+            int n = Math.min(games, all.size());
+            int[] times = new int[n];
+            for (int i = 0; i < n; i++) times[i] = all.get(all.size()-n+i).millis;
+            Arrays.sort(times);
+            for (double percentile : new double[]{0, 1, 25, 50, 90, 99.9, 100}) {
+                int k = (int) Math.min(n-1, Math.max(0, Math.ceil(percentile/100*n)-1)); // Nearest rank.
+                assertEquals(times[k], board.percentileMillis(percentile, games), percentile + "th of the last " + games);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * LineReader splitting lines (LF, CRLF, blank, no final newline, longer than its buffer, arriving a byte at a time)
+ * and parseInt() on signs, spaces, overflow and things that are not numbers.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+class LineReaderTest {
+    @Test
+    void splitsLines() throws IOException {
+        assertEquals(List.of("a", "b", "", "c"), lines("a\r\nb\n\nc", false));
+        assertEquals(List.of("a", "b", "", "c"), lines("a\r\nb\n\nc\n", false));
+        assertEquals(List.of("", ""), lines("\n\r\n", false));
+        assertEquals(List.of("x"), lines("x\r", false)); // A CR at the very end is a line ending too.
+        assertEquals(List.of("a\rb"), lines("a\rb\n", false)); // Only before LF.
+        assertEquals(List.of(), lines("", false));
+    }
+
+    @Test
+    void sameLinesOneByteAtATime() throws IOException {
+        String text = "3\r\n4\r\n\r\n  ping \nw\n-12\nlast";
+        assertEquals(lines(text, false), lines(text, true));
+    }
+
+    @Test
+    void lineLongerThanBuffer() throws IOException {
+        String longLine = "w".repeat(200_000);
+        assertEquals(List.of("a", longLine, "b"), lines("a\n" + longLine + "\r\nb\n", false));
+    }
+
+    @Test
+    void countsLinesAndParsesThem() throws IOException {
+        LineReader reader = new LineReader(new ByteArrayInputStream(" 42 \r\n Pi ng\r\n".getBytes(StandardCharsets.US_ASCII)));
+        reader.next();
+        assertEquals(42, reader.number());
+        assertEquals(Commands.UNKNOWN, reader.command());
+        reader.next();
+        assertEquals(Commands.PING, reader.command());
+        assertEquals(LineReader.NOT_A_NUMBER, reader.number());
+        assertFalse(reader.next());
+        assertEquals(2, reader.lines());
+    }
+
+    @Test
+    void parsesNumbers() {
+        assertEquals(0, LineReader.parseInt("0"));
+        assertEquals(0, LineReader.parseInt("-0"));
+        assertEquals(5, LineReader.parseInt("+5"));
+        assertEquals(-17, LineReader.parseInt("-17"));
+        assertEquals(12, LineReader.parseInt(" \t12 \r"));
+        assertEquals(7, LineReader.parseInt("007"));
+        assertEquals(Integer.MAX_VALUE, LineReader.parseInt("2147483647"));
+        assertEquals(Integer.MIN_VALUE+1, LineReader.parseInt("-2147483647"));
+    }
+
+    @Test
+    void rejectsWhatIsNotAnInt() {
+        for (String text : new String[]{"", "   ", "-", "+", "+-1", "--1", "1 2", "1.5", "1e3", "0x10", "12a", "a12",
+                "2147483648", "-2147483648", "-2147483649", "99999999999999999999", "٣"}) {
+            assertEquals(LineReader.NOT_A_NUMBER, LineReader.parseInt(text), "\"" + text + "\"");
+        }
+        assertEquals(LineReader.NOT_A_NUMBER, LineReader.parseInt(null));
+        byte[] padded = "9 12 9".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(12, LineReader.parseInt(padded, 2, 2)); // Only [len] bytes from [off].
+    }
+
+    // Every line of [text], read a byte per read() if [trickle].
+    private static List<String> lines(String text, boolean trickle) throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+        InputStream in = (!trickle) ? bytes : new InputStream() {
+            @Override
+            public int read() {
+                return bytes.read();
+            }
+
+            @Override
+            public int read(byte[] into, int off, int len) {
+                return bytes.read(into, off, Math.min(len, 1));
+            }
+        };
+        LineReader reader = new LineReader(in);
+        List<String> lines = new ArrayList<>();
+        while (reader.next()) lines.add(new String(reader.buffer(), reader.start(), reader.length(), StandardCharsets.US_ASCII));
+        assertEquals(lines.size(), reader.lines());
+        return lines;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * PathCost.minMoves() against a plain Dijkstra with a priority queue, on random boards with the default tiles
+ * and with types that take more hits (so more buckets) or never break, and on boards made by hand
+ * where the answer is known.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+class PathCostTest {
+    private static final TileTypes HARD = TileTypes.parse(String.join("\n",
+        "ROCK  \"###\"  3  no  1  WEAK",
+        "WALL  \"|||\"  0  no  1  -"));
+
+    @Test
+    void defaultTilesMatchDijkstra() {
+        compare(TileTypes.DEFAULT, new SplittableRandom(1));
+    }
+
+    @Test
+    void moreHitsAndWallsMatchDijkstra() {
+        assertEquals(8, PathCost.buckets(HARD)); // ROCK costs 5.
+        compare(HARD, new SplittableRandom(2));
+    }
+
+    @Test
+    void sameTileIsFree() {
+        TileGrid board = board(TileTypes.DEFAULT, 5, 5, new SplittableRandom(3));
+        assertEquals(0, PathCost.minMoves(board, new int[]{2, 2}, new int[]{2, 2}));
+    }
+
+    @Test
+    void goesAroundStrongTiles() {
+        // A column of STRONG between start and target, open at the bottom:
+        //   S # T
+        //   . # .
+        //   . . .
+        TileGrid board = new TileGrid(3, 3);
+        board.set(1, 0, TileGrid.STRONG);
+        board.set(1, 1, TileGrid.STRONG);
+        assertEquals(4, PathCost.minMoves(board, new int[]{0, 0}, new int[]{2, 0})); // Through: 3+1. Around: 6.
+        board.set(2, 0, TileGrid.BOMB);
+        board.set(1, 2, TileGrid.WEAK);
+        assertEquals(4, PathCost.minMoves(board, new int[]{0, 0}, new int[]{2, 0}));
+        board.set(1, 0, TileGrid.EMPTY);
+        assertEquals(2, PathCost.minMoves(board, new int[]{0, 0}, new int[]{2, 0}));
+    }
+
+    @Test
+    void bombBehindWallsIsUnreachable() {
+        // The bomb in the middle of a ring of walls, with the rest of the board open:
+        //   . . . . .
+        //   . | | | .
+        //   . | @ | .
+        //   . | | | .
+        //   . . . . .
+        TileGrid board = new TileGrid(HARD, 5, 5);
+        int wall = wall();
+        for (int row = 1; row < 4; row++) {
+            for (int col = 1; col < 4; col++) board.set(col, row, wall);
+        }
+        board.set(2, 2, TileGrid.BOMB);
+        assertEquals(PathCost.UNREACHABLE, PathCost.minMoves(board, new int[]{0, 0}, new int[]{2, 2}));
+        assertEquals(PathCost.UNREACHABLE, PathCost.minMoves(board, new int[]{0, 0}, new int[]{1, 1})); // The wall itself.
+        assertEquals(PathCost.UNREACHABLE, PathCost.minMoves(board, new int[]{2, 2}, new int[]{0, 0})); // Nor out.
+        board.set(2, 3, TileGrid.STRONG); // A gap that can be broken through, from below.
+        assertEquals(6+3+1, PathCost.minMoves(board, new int[]{0, 0}, new int[]{2, 2}));
+    }
+
+    private static int wall() {
+        for (int id = 0; id < HARD.ids; id++) {
+            if (HARD.name(id).equals("WALL")) return id;
+        }
+        throw new AssertionError("No WALL");
+    }
+
+    // Random boards of random sizes, between random tiles.
+    private static void compare(TileTypes types, SplittableRandom rng) {
+        for (int i = 0; i < 300; i++) {
+            int columns = 1+rng.nextInt(30), rows = 1+rng.nextInt(30);
+            TileGrid board = board(types, columns, rows, rng);
+            int[] start = {rng.nextInt(columns), rng.nextInt(rows)};
+            int[] target = {rng.nextInt(columns), rng.nextInt(rows)};
+            assertEquals(dijkstra(board, start, target), PathCost.minMoves(board, start, target),
+                "Board " + i + ", " + columns + "x" + rows + " from " + Arrays.toString(start) + " to " + Arrays.toString(target));
+        }
+    }
+
+    private static TileGrid board(TileTypes types, int columns, int rows, SplittableRandom rng) {
+        TileGrid board = new TileGrid(types, columns, rows);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) board.set(col, row, types.randomTile(rng));
+        }
+        return board;
+    }
+
+    // Textbook Dijkstra, queueing distance << 32 | cell.
+    private static int dijkstra(TileGrid board, int[] start, int[] target) {
+        int columns = board.columns;
+        int[] dist = new int[columns*board.rows];
+        Arrays.fill(dist, PathCost.UNREACHABLE);
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        int source = start[1]*columns+start[0];
+        dist[source] = 0;
+        queue.add((long) source);
+        int[][] steps = {{1, 0}, {0, -1}, {-1, 0}, {0, 1}};
+        while (!queue.isEmpty()) {
+            long entry = queue.poll();
+            int d = (int) (entry >>> 32), cell = (int) entry;
+            if (d != dist[cell]) continue;
+            int col = cell%columns, row = cell/columns;
+            if (col == target[0] && row == target[1]) return d;
+            for (int[] step : steps) {
+                int x = col+step[0], y = row+step[1];
+                if (!board.contains(x, y)) continue;
+                int cost = board.types.cost(board.get(x, y));
+                if (cost == TileTypes.NEVER || d+cost >= dist[y*columns+x]) continue;
+                dist[y*columns+x] = d+cost;
+                queue.add((long) (d+cost) << 32 | (y*columns+x));
+            }
+        }
+        return PathCost.UNREACHABLE;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * PersistentGrid against a TileGrid given the same random edits, with snapshots taken and restored along the way,
+ * each checked against a copy of the TileGrid made when it was taken. Writes after going back to an old snapshot
+ * must never show up in a newer one, or in another grid restored to it.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+class PersistentGridTest {
+    private static final TileTypes MANY = TileTypes.parse(String.join("\n", // 8 bits per tile.
+        "ROCK  \"###\"  40  no  1  WEAK",
+        "WALL  \"|||\"  0   no  1  -"));
+
+    @Test
+    void smallGridMatchesTileGrid() {
+        compare(TileTypes.DEFAULT, 7, 5, new SplittableRandom(1));
+    }
+
+    @Test
+    void tallTreeMatchesTileGrid() {
+        compare(TileTypes.DEFAULT, 100, 100, new SplittableRandom(2)); // More than BRANCH leaves.
+    }
+
+    @Test
+    void wideTilesMatchTileGrid() {
+        compare(MANY, 60, 45, new SplittableRandom(3));
+    }
+
+    @Test
+    void restoreNeedsSameSize() {
+        PersistentGrid grid = new PersistentGrid(new TileGrid(4, 4));
+        PersistentGrid.Snapshot other = new PersistentGrid(new TileGrid(4, 5)).snapshot();
+        assertThrows(IllegalArgumentException.class, () -> grid.restore(other));
+    }
+
+    @Test
+    void writesAfterRestoringOldSnapshotStayOutOfNewerOnes() {
+        TileGrid start = new TileGrid(40, 40); // All EMPTY, in more than one leaf.
+        PersistentGrid grid = new PersistentGrid(start);
+        PersistentGrid.Snapshot older = grid.snapshot();
+        grid.set(5, 5, TileGrid.STRONG);
+        PersistentGrid.Snapshot newer = grid.snapshot();
+
+        grid.restore(older); // Writing to the old version again, in the leaf the newer one changed.
+        grid.set(5, 5, TileGrid.WEAK);
+        grid.set(6, 5, TileGrid.BOMB);
+        PersistentGrid other = new PersistentGrid(start);
+        other.restore(newer);
+        assertEquals(TileGrid.STRONG, other.get(5, 5));
+        assertEquals(TileGrid.EMPTY, other.get(6, 5));
+        other.set(7, 5, TileGrid.BOMB); // And the other way, from a second grid.
+
+        grid.restore(newer);
+        assertEquals(TileGrid.STRONG, grid.get(5, 5));
+        assertEquals(TileGrid.EMPTY, grid.get(6, 5));
+        assertEquals(TileGrid.EMPTY, grid.get(7, 5));
+        grid.restore(older);
+        assertEquals(TileGrid.EMPTY, grid.get(5, 5));
+        assertEquals(TileGrid.EMPTY, grid.get(6, 5));
+    }
+
+    // Random edits, with a snapshot or restore now and then, checking the whole grid after each of those.
+    private static void compare(TileTypes types, int columns, int rows, SplittableRandom rng) {
+        TileGrid expected = new TileGrid(types, columns, rows);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) expected.set(col, row, types.randomTile(rng));
+        }
+        PersistentGrid grid = new PersistentGrid(expected);
+        assertTiles(expected, grid);
+        List<PersistentGrid.Snapshot> snapshots = new ArrayList<>();
+        List<TileGrid> copies = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            int col = rng.nextInt(columns), row = rng.nextInt(rows), tile = rng.nextInt(types.ids);
+            grid.set(col, row, tile);
+            expected.set(col, row, tile);
+            assertEquals(tile, grid.get(col, row));
+
+            int roll = rng.nextInt(50);
+            if (roll == 0) {
+                snapshots.add(grid.snapshot());
+                copies.add(copy(expected));
+            }
+            else if (roll == 1 && !snapshots.isEmpty()) {
+                int at = rng.nextInt(snapshots.size());
+                grid.restore(snapshots.get(at));
+                expected = copy(copies.get(at));
+                assertTiles(expected, grid);
+            }
+        }
+        assertTiles(expected, grid);
+        for (int i = 0; i < snapshots.size(); i++) { // Writes since never changed them.
+            grid.restore(snapshots.get(i));
+            assertTiles(copies.get(i), grid);
+        }
+    }
+
+    private static TileGrid copy(TileGrid grid) {
+        TileGrid copy = new TileGrid(grid.types, grid.columns, grid.rows);
+        for (int row = 0; row < grid.rows; row++) {
+            for (int col = 0; col < grid.columns; col++) copy.set(col, row, grid.get(col, row));
+        }
+        return copy;
+    }
+
+    // Checks every tile of [grid], read directly and through toTileGrid(), against [expected].
+    private static void assertTiles(TileGrid expected, PersistentGrid grid) {
+        TileGrid copied = grid.toTileGrid();
+        for (int row = 0; row < grid.rows; row++) {
+            for (int col = 0; col < grid.columns; col++) {
+                assertEquals(expected.get(col, row), grid.get(col, row), "Tile (" + col + ", " + row + ")");
+                assertEquals(expected.get(col, row), copied.get(col, row), "Copied tile (" + col + ", " + row + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * The same seed and start make the same game, and a Simulation run gives the same totals however many threads
+ * play it.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+class SimulationTest {
+    @Test
+    void sameSeedAndStartMakeSameGame() {
+        for (long seed : new long[]{0, 1, 42, -7, Long.MIN_VALUE}) {
+            Simulation.State first = new Simulation.State(30, 20, 100, 5, seed, new int[]{4, 7});
+            Simulation.State second = new Simulation.State(30, 20, 100, 5, seed, new int[]{4, 7});
+            assertTiles(first.board, second.board);
+            assertArrayEquals(first.bombPos, second.bombPos);
+            assertEquals(first.optimalMoves, second.optimalMoves);
+            assertEquals(first.movesLeft, second.movesLeft);
+        }
+    }
+
+    @Test
+    void simulationMovesLikeTheGame() throws IOException {
+        // Simulation and Solver step with the size of the board, the Game with the board itself: same tiles either way.
+        TileGrid grid = new TileGrid(4, 3);
+        for (int row = -1; row <= 3; row++) {
+            for (int col = -1; col <= 4; col++) {
+                for (int direction = -1; direction <= 4; direction++) {
+                    int[] pos = {col, row};
+                    assertArrayEquals(Game.getTarget(pos, direction, grid), Game.getTarget(pos, direction, 4, 3), col + ", " + row + " to " + direction);
+                }
+            }
+        }
+        try (World world = new World(1, 1, null)) {
+            assertArrayEquals(new int[]{-1, 0}, Game.getTarget(new int[]{0, 0}, 2, world)); // No edge to a World.
+        }
+    }
+
+    @Test
+    void solverStartsWithTheBombAsCandidate() {
+        for (int[] size : new int[][]{{3, 3}, {9, 12}, {4, 30}}) {
+            for (long index = 0; index < 500; index++) {
+                Simulation.State game = Simulation.newGame(size[0], size[1], 1000, 5, 7, index);
+                Solver solver = new Solver(game.board, size[0], size[1], game.playerPos, false);
+                assertTrue(solver.isCandidate(game.bombPos[0], game.bombPos[1]), "Game " + index + " on " + size[0] + "x" + size[1]);
+            }
+        }
+    }
+
+    @Test
+    void numberedGamesAreReproducible() {
+        for (long index = 0; index < 50; index++) {
+            Simulation.State first = Simulation.newGame(9, 12, 36, 5, 42, index);
+            Simulation.State second = Simulation.newGame(9, 12, 36, 5, 42, index);
+            assertArrayEquals(first.start, second.start);
+            assertEquals(first.seed, second.seed);
+            assertTiles(first.board, second.board);
+            assertArrayEquals(first.bombPos, second.bombPos);
+        }
+        assertFalse(Simulation.newGame(9, 12, 36, 5, 42, 0).seed == Simulation.newGame(9, 12, 36, 5, 42, 1).seed);
+    }
+
+    @Test
+    void sameStatsOnAnyNumberOfThreads() throws Exception {
+        Simulation.Stats one = simulate(1, Simulation.RANDOM), four = simulate(4, Simulation.RANDOM);
+        assertStats(one, four);
+        assertStats(simulate(1, Simulation.SOLVER), simulate(3, Simulation.SOLVER));
+        assertEquals(2000, one.games);
+    }
+
+    // A run of 2000 games on a pool of [threads], which the parallel stream in simulate() then runs on.
+    private static Simulation.Stats simulate(int threads, Supplier<Simulation.Strategy> strategy) throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> Simulation.simulate(2000, strategy, 15, 15, 60, 5, 99)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assertStats(Simulation.Stats expected, Simulation.Stats actual) {
+        assertEquals(expected.games, actual.games);
+        assertEquals(expected.wins, actual.wins);
+        assertEquals(expected.movesUsed, actual.movesUsed);
+        assertEquals(expected.winMovesUsed, actual.winMovesUsed);
+        assertEquals(expected.pingsUsed, actual.pingsUsed);
+        assertEquals(expected.optimalMoves, actual.optimalMoves);
+    }
+
+    private static void assertTiles(TileGrid expected, TileGrid actual) {
+        assertEquals(expected.columns, actual.columns);
+        assertEquals(expected.rows, actual.rows);
+        for (int row = 0; row < expected.rows; row++) {
+            for (int col = 0; col < expected.columns; col++) assertEquals(expected.get(col, row), actual.get(col, row), "Tile (" + col + ", " + row + ")");
+        }
+    }
+}
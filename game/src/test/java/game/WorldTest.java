@@ -0,0 +1,91 @@
+/**
+ * A World keeping 2 chunks in memory against one that never evicts, with the same seed: tiles read after walking
+ * far away must match, whether their chunk was made again from the seed (clean) or read back from its spill file
+ * (dirty), on both sides of 0.
+ */
+package game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+class WorldTest {
+    private static final int SIZE = World.CHUNK_SIZE;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void cleanChunksComeBackFromSeed() throws IOException {
+        try (World small = new World(7, 2, dir); World big = new World(7, 1 << 16, null)) {
+            for (int pass = 0; pass < 2; pass++) { // The second pass makes every chunk again.
+                for (int row = -3*SIZE; row < 3*SIZE; row += 5) {
+                    for (int col = -3*SIZE; col < 3*SIZE; col += 3) {
+                        assertEquals(big.get(col, row), small.get(col, row), "Tile (" + col + ", " + row + ")");
+                        assertTrue(small.cachedChunks() <= 2);
+                    }
+                }
+            }
+            assertEquals(0, small.spilled);
+            assertTrue(small.generated > 36);
+        }
+    }
+
+    @Test
+    void dirtyChunksComeBackFromSpill() throws IOException {
+        SplittableRandom rng = new SplittableRandom(3);
+        Map<Long, Integer> written = new HashMap<>();
+        try (World world = new World(11, 2, dir); World reference = new World(11, 1 << 16, null)) {
+            for (int i = 0; i < 2000; i++) {
+                int col = rng.nextInt(-4*SIZE, 4*SIZE), row = rng.nextInt(-4*SIZE, 4*SIZE);
+                if (rng.nextBoolean()) {
+                    int tile = rng.nextInt(4);
+                    world.set(col, row, tile);
+                    reference.set(col, row, tile);
+                    written.put(key(col, row), tile);
+                }
+                else assertEquals(reference.get(col, row), world.get(col, row), "Tile (" + col + ", " + row + ")");
+                assertTrue(world.cachedChunks() <= 2);
+            }
+            walkAway(world);
+            for (Map.Entry<Long, Integer> tile : written.entrySet()) {
+                int col = (int) (tile.getKey() >> 32), row = (int) (long) tile.getKey();
+                assertEquals(tile.getValue(), world.get(col, row), "Tile (" + col + ", " + row + ")");
+            }
+            assertTrue(world.spilled > 0);
+            assertTrue(world.loaded > 0);
+        }
+    }
+
+    @Test
+    void negativeTilesLandInTheirOwnChunk() throws IOException {
+        // Each pair is next to each other, across a chunk edge. Writing one must not change the other.
+        int[][] edges = {{-1, -1, 0, 0}, {-SIZE, 0, -SIZE-1, 0}, {0, -SIZE, 0, -SIZE-1}, {-1, 5, SIZE-1, 5}};
+        try (World world = new World(5, 2, dir); World reference = new World(5, 1 << 16, null)) {
+            for (int[] edge : edges) {
+                int before = reference.get(edge[2], edge[3]);
+                int tile = (world.get(edge[0], edge[1])+1)%4;
+                world.set(edge[0], edge[1], tile);
+                walkAway(world);
+                assertEquals(tile, world.get(edge[0], edge[1]));
+                assertEquals(before, world.get(edge[2], edge[3]));
+                world.set(edge[0], edge[1], reference.get(edge[0], edge[1])); // Back as it was, for the next pair.
+            }
+        }
+    }
+
+    // Reads tiles in chunks far from everything above, so every chunk in memory is evicted.
+    private static void walkAway(World world) {
+        for (int i = 0; i < 4; i++) world.get(1000*SIZE+i*SIZE, -1000*SIZE);
+    }
+
+    private static long key(int col, int row) {
+        return ((long) col << 32) | (row & 0xFFFFFFFFL);
+    }
+}